@@ -0,0 +1,33 @@
+package com.blackpearl.config;
+
+import com.blackpearl.service.DashboardStreamService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Switches dashboard streams to non-blocking writes once their request has gone async, so a
+ * stalled browser is detected by {@link DashboardStreamService} instead of holding a dispatcher
+ * thread until the connection times out.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class DashboardStreamConfig implements WebMvcConfigurer {
+
+    private final DashboardStreamService dashboardStream;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AsyncHandlerInterceptor() {
+            @Override
+            public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                                       Object handler) throws Exception {
+                dashboardStream.startNonBlockingWrites(request, response);
+            }
+        }).addPathPatterns("/api/dashboard/stream");
+    }
+}
@@ -0,0 +1,55 @@
+package com.blackpearl.config;
+
+import com.blackpearl.model.Notification;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Retention of notifications, under {@code notifications.retention}. A direct notification its
+ * recipient has read is kept for {@code read-max-age}; unread ones and broadcasts (which have
+ * no single reader) for {@code unread-max-age}. Both can be overridden per type under
+ * {@code types.<TYPE>}.
+ */
+@Component
+@ConfigurationProperties(prefix = "notifications.retention")
+@Getter
+@Setter
+public class NotificationRetentionProperties {
+
+    private boolean enabled = true;
+
+    private Duration readMaxAge = Duration.ofDays(30);
+
+    private Duration unreadMaxAge = Duration.ofDays(180);
+
+    /** Primary key range deleted per transaction. */
+    private int batchSize = 1000;
+
+    /** Pause between batches, letting replicas and other writers catch up. */
+    private Duration batchPause = Duration.ofMillis(100);
+
+    private Map<Notification.Type, Rule> types = new EnumMap<>(Notification.Type.class);
+
+    public Duration readMaxAge(Notification.Type type) {
+        Rule rule = types.get(type);
+        return rule != null && rule.getReadMaxAge() != null ? rule.getReadMaxAge() : readMaxAge;
+    }
+
+    public Duration unreadMaxAge(Notification.Type type) {
+        Rule rule = types.get(type);
+        return rule != null && rule.getUnreadMaxAge() != null ? rule.getUnreadMaxAge() : unreadMaxAge;
+    }
+
+    @Getter
+    @Setter
+    public static class Rule {
+        private Duration readMaxAge;
+        private Duration unreadMaxAge;
+    }
+}
@@ -0,0 +1,54 @@
+package com.blackpearl.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves databases created before per-user read state off the {@code notifications.read} column.
+ * {@code ddl-auto=update} never drops columns, and the old one is {@code NOT NULL} without a
+ * default, so under strict mode every insert of a notification would fail while it exists.
+ * <p>
+ * Direct notifications marked read become receipts of their recipient, unread counts are
+ * recounted, and the column is dropped. Runs once the schema has been updated (after the entity
+ * manager factory) and before the web server takes requests; a no-op afterwards.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationSchemaMigration {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @PostConstruct
+    void migrate() {
+        Integer legacy = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns WHERE table_schema = DATABASE() " +
+                        "AND table_name = 'notifications' AND column_name = 'read'", Integer.class);
+        if (legacy == null || legacy == 0) {
+            return;
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+            int receipts = jdbcTemplate.update(
+                    "INSERT IGNORE INTO notification_receipts (user_id, notification_id) " +
+                            "SELECT n.user_id, n.id FROM notifications n " +
+                            "WHERE n.`read` = TRUE AND n.user_id IS NOT NULL");
+            jdbcTemplate.update(
+                    "UPDATE notification_read_state s SET s.unread_count = (SELECT COUNT(*) FROM notifications n " +
+                            "WHERE n.user_id = s.user_id AND n.id > s.read_through_id " +
+                            "AND NOT EXISTS (SELECT 1 FROM notification_receipts r " +
+                            "WHERE r.user_id = s.user_id AND r.notification_id = n.id))");
+            log.info("Notification read flags migrated to {} receipts", receipts);
+        });
+        // DDL commits implicitly, so it runs once the data is in place.
+        jdbcTemplate.execute("ALTER TABLE notifications DROP COLUMN `read`");
+        log.info("Dropped legacy column notifications.read");
+    }
+}
@@ -0,0 +1,146 @@
+package com.blackpearl.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary. The replica
+ * is only used while its replication lag, polled from {@code SHOW REPLICA STATUS}, is within
+ * {@code maxLagMs}, and only once {@code readAfterWriteMs} (the lag bound plus one polling
+ * interval) has passed since this instance last finished a read-write transaction, so a read
+ * following a write (a list reload, a cache refill, a dashboard refresh) sees that write. A
+ * healthy result only counts for two polling intervals: if the checks stop or hang, reads go
+ * back to the primary.
+ * <p>
+ * The lookup runs when a physical connection is taken, so it must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction's
+ * read-only flag is only set after the transaction manager has asked for a connection.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private final DataSource replica;
+    private final long maxLagMs;
+    private final long readAfterWriteMs;
+    private final long staleAfterMs;
+    private final int checkTimeoutSeconds;
+
+    private volatile boolean replicaHealthy;
+    private volatile long healthyAt;
+    private volatile long lagMs = -1;
+    private volatile long lastWriteAt;
+
+    private final LongAdder primaryReads = new LongAdder();
+    private final LongAdder replicaReads = new LongAdder();
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, long maxLagMs, long lagCheckIntervalMs) {
+        this.replica = replica;
+        this.maxLagMs = maxLagMs;
+        this.readAfterWriteMs = maxLagMs + lagCheckIntervalMs;
+        this.staleAfterMs = 2 * lagCheckIntervalMs;
+        this.checkTimeoutSeconds = (int) Math.max(1, (lagCheckIntervalMs + 999) / 1000);
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Target.PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            recordWriteOnCompletion();
+            return Target.PRIMARY;
+        }
+        long now = System.currentTimeMillis();
+        if (replicaHealthy && now - healthyAt <= staleAfterMs && now - lastWriteAt > readAfterWriteMs) {
+            replicaReads.increment();
+            return Target.REPLICA;
+        }
+        primaryReads.increment();
+        return Target.PRIMARY;
+    }
+
+    private void recordWriteOnCompletion() {
+        lastWriteAt = System.currentTimeMillis();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lastWriteAt = System.currentTimeMillis();
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-interval-ms:1000}")
+    public void checkLag() {
+        long lag;
+        try {
+            lag = readLagMs();
+        } catch (SQLException e) {
+            log.debug("Replica lag check failed", e);
+            lag = -1;
+        }
+        boolean healthy = lag >= 0 && lag <= maxLagMs;
+        if (healthy != replicaHealthy) {
+            if (healthy) {
+                log.info("Read replica in use, lag {} ms", lag);
+            } else {
+                log.warn("Read replica unavailable or lagging ({} ms), reading from the primary", lag);
+            }
+        }
+        lagMs = lag;
+        if (healthy) {
+            healthyAt = System.currentTimeMillis();
+        }
+        replicaHealthy = healthy;
+    }
+
+    /** Replication lag in milliseconds, or -1 if the replica is not replicating. */
+    long readLagMs() throws SQLException {
+        try (Connection con = replica.getConnection(); Statement st = con.createStatement()) {
+            st.setQueryTimeout(checkTimeoutSeconds);
+            try (ResultSet rs = st.executeQuery("SHOW REPLICA STATUS")) {
+                return rs.next() ? secondsToMs(rs, "Seconds_Behind_Source") : -1;
+            } catch (SQLException e) {
+                // Servers before MySQL 8.0.22 only know the old statement and column names.
+                try (ResultSet rs = st.executeQuery("SHOW SLAVE STATUS")) {
+                    return rs.next() ? secondsToMs(rs, "Seconds_Behind_Master") : -1;
+                }
+            }
+        }
+    }
+
+    private static long secondsToMs(ResultSet rs, String column) throws SQLException {
+        long seconds = rs.getLong(column);
+        return rs.wasNull() ? -1 : seconds * 1000;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("replicaHealthy", replicaHealthy);
+        stats.put("lagMs", lagMs);
+        stats.put("healthyCheckAgeMs", healthyAt > 0 ? System.currentTimeMillis() - healthyAt : -1);
+        stats.put("maxLagMs", maxLagMs);
+        stats.put("replicaReads", replicaReads.sum());
+        stats.put("primaryReads", primaryReads.sum());
+        return stats;
+    }
+}
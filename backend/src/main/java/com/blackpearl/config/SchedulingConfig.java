@@ -0,0 +1,14 @@
+package com.blackpearl.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} housekeeping jobs (revocation pruning and similar). They share the
+ * scheduler pool sized by {@code spring.task.scheduling.pool.size}; jobs that may run long hand
+ * their work to an executor of their own.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,45 @@
+package com.blackpearl.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Admission limits for the unauthenticated, BCrypt-backed endpoints, configured per endpoint
+ * under {@code throttle.endpoints.<name>}. Each endpoint can limit by account (the email in the
+ * request body) and by remote address; a limit of {@code capacity} requests refills evenly over
+ * {@code refill-period}.
+ */
+@Component
+@ConfigurationProperties(prefix = "throttle")
+@Getter
+@Setter
+public class ThrottleProperties {
+
+    private boolean enabled = true;
+
+    /** Buckets untouched for this long are evicted. */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    private Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Endpoint {
+        private String path;
+        private Limit account;
+        private Limit ip;
+    }
+
+    @Getter
+    @Setter
+    public static class Limit {
+        private int capacity;
+        private Duration refillPeriod = Duration.ofMinutes(1);
+    }
+}
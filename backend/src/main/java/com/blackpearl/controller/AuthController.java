@@ -2,16 +2,24 @@ package com.blackpearl.controller;
 
 import com.blackpearl.model.User;
 import com.blackpearl.repository.UserRepository;
-import com.blackpearl.security.JwtUtil;
+import com.blackpearl.security.CurrentUserResolver;
+import com.blackpearl.security.CustomUserDetails;
+import com.blackpearl.service.LoginService;
+import com.blackpearl.service.TokenService;
+import com.blackpearl.service.UserIdentityCache.UserIdentity;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.*;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/auth")
@@ -19,39 +27,64 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class AuthController {
 
-    private final AuthenticationManager authenticationManager;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final JwtUtil jwtUtil;
-    private final UserDetailsService userDetailsService;
+    private final LoginService loginService;
+    private final TokenService tokenService;
+    private final CurrentUserResolver currentUser;
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Map<String, String> req) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody Map<String, String> req) {
+        CompletableFuture<User> authenticated;
         try {
-            authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(req.get("email"), req.get("password")));
-        } catch (BadCredentialsException e) {
-            return ResponseEntity.status(401).body(Map.of("message", "Invalid email or password"));
+            authenticated = loginService.authenticate(req.get("email"), req.get("password"));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(503)
+                    .header("Retry-After", "1")
+                    .body(Map.of("message", "Too many concurrent logins. Please retry shortly.")));
         }
 
-        UserDetails userDetails = userDetailsService.loadUserByUsername(req.get("email"));
-        User user = userRepository.findByEmail(req.get("email")).orElseThrow();
+        return authenticated.handle((user, ex) -> {
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            if (cause instanceof DisabledException) {
+                return ResponseEntity.status(403).body(Map.of("message", cause.getMessage()));
+            }
+            if (cause != null) {
+                return ResponseEntity.status(401).body(Map.of("message", "Invalid email or password"));
+            }
+
+            Map<String, Object> body = new LinkedHashMap<>(tokenService.issueTokens(new CustomUserDetails(user)));
+            body.put("user", Map.of(
+                            "id", user.getId(),
+                            "name", user.getFullName(),
+                            "email", user.getEmail(),
+                            "role", user.getRole().name(),
+                            "department", user.getDepartment() != null ? user.getDepartment().name() : ""));
+            return ResponseEntity.ok(body);
+        });
+    }
 
-        if (!user.isActive()) {
-            return ResponseEntity.status(403)
-                    .body(Map.of("message", "User account is inactive. Please contact admin."));
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody Map<String, String> req) {
+        try {
+            return ResponseEntity.ok(tokenService.refresh(req.get("refreshToken")));
+        } catch (BadCredentialsException e) {
+            return ResponseEntity.status(401).body(Map.of("message", e.getMessage()));
         }
+    }
 
-        String token = jwtUtil.generateToken(userDetails);
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestBody(required = false) Map<String, String> req) {
+        String accessToken = authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+        tokenService.revoke(accessToken, req != null ? req.get("refreshToken") : null);
+        return ResponseEntity.noContent().build();
+    }
 
-        return ResponseEntity.ok(Map.of(
-                "token", token,
-                "user", Map.of(
-                        "id", user.getId(),
-                        "name", user.getFullName(),
-                        "email", user.getEmail(),
-                        "role", user.getRole().name(),
-                        "department", user.getDepartment() != null ? user.getDepartment().name() : "")));
+    @GetMapping("/login-metrics")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> loginMetrics() {
+        return ResponseEntity.ok(loginService.getMetrics());
     }
 
     @PostMapping("/register")
@@ -91,12 +124,12 @@ public class AuthController {
 
     @GetMapping("/me")
     public ResponseEntity<?> me(org.springframework.security.core.Authentication auth) {
-        User user = userRepository.findByEmail(auth.getName()).orElseThrow();
+        UserIdentity user = currentUser.currentUser();
         return ResponseEntity.ok(Map.of(
-                "id", user.getId(),
-                "name", user.getFullName(),
-                "email", user.getEmail(),
-                "role", user.getRole().name(),
-                "department", user.getDepartment() != null ? user.getDepartment().name() : ""));
+                "id", user.id(),
+                "name", user.fullName(),
+                "email", user.email(),
+                "role", user.role().name(),
+                "department", user.department() != null ? user.department().name() : ""));
     }
 }
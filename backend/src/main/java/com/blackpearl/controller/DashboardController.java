@@ -1,13 +1,22 @@
 package com.blackpearl.controller;
 
+import com.blackpearl.config.ReplicaRoutingDataSource;
+import com.blackpearl.security.SecurityUtils;
 import com.blackpearl.service.DashboardService;
+import com.blackpearl.service.DashboardStreamService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/dashboard")
@@ -18,6 +27,8 @@ import java.util.Map;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final DashboardStreamService dashboardStream;
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRouting;
 
     @GetMapping("/user")
     public ResponseEntity<Map<String, Object>> userStats(Authentication auth) {
@@ -39,4 +50,49 @@ public class DashboardController {
     public ResponseEntity<Map<String, Object>> summary() {
         return ResponseEntity.ok(dashboardService.getDashboardSummary());
     }
+
+    /**
+     * Compares the in-memory dashboard counters with fresh database counts.
+     */
+    @GetMapping("/counters/consistency")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> counterConsistency() {
+        return ResponseEntity.ok(dashboardService.getCounterConsistency());
+    }
+
+    @GetMapping("/snapshot-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> snapshotStats() {
+        return ResponseEntity.ok(dashboardService.getSnapshotStats());
+    }
+
+    /**
+     * Server-Sent Events stream of dashboard deltas: "hello" on connect, then "counters",
+     * "status" and "notification" events. Sent {@code Last-Event-ID}, it first replays the
+     * notifications missed since then, and "hello" says whether it could.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            HttpServletRequest request) {
+        try {
+            return ResponseEntity.ok(dashboardStream.subscribe(request, SecurityUtils.getCurrentUserId(),
+                    SecurityUtils.isAdmin(), lastEventId));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "5").build();
+        }
+    }
+
+    @GetMapping("/stream-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> streamStats() {
+        return ResponseEntity.ok(dashboardStream.stats());
+    }
+
+    /** Read replica routing state; empty when no replica is configured. */
+    @GetMapping("/replica-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> replicaStats() {
+        ReplicaRoutingDataSource routing = replicaRouting.getIfAvailable();
+        return ResponseEntity.ok(routing != null ? routing.stats() : Map.of());
+    }
 }
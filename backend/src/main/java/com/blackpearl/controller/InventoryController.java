@@ -1,11 +1,15 @@
 package com.blackpearl.controller;
 
 import com.blackpearl.dto.InventoryDto;
+import com.blackpearl.dto.ListFilter;
+import com.blackpearl.model.Inventory;
+import com.blackpearl.service.ConditionalGet;
 import com.blackpearl.service.InventoryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -19,15 +23,21 @@ import java.util.Map;
 public class InventoryController {
 
     private final InventoryService inventoryService;
+    private final ConditionalGet conditionalGet;
 
     @GetMapping
-    public List<InventoryDto> getAll() {
-        return inventoryService.getAllInventory();
+    public ResponseEntity<List<InventoryDto>> getAll(ListFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        return conditionalGet.respond(request,
+                () -> inventoryService.getAllInventory(filter, cursor, size).toResponse(),
+                Inventory.class);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<InventoryDto> getById(@PathVariable Long id) {
-        return ResponseEntity.ok(inventoryService.getInventoryById(id));
+    public ResponseEntity<InventoryDto> getById(@PathVariable Long id, WebRequest request) {
+        return conditionalGet.respond(request, () -> ResponseEntity.ok(inventoryService.getInventoryById(id)),
+                Inventory.class);
     }
 
     @PostMapping
@@ -1,14 +1,22 @@
 package com.blackpearl.controller;
 
+import com.blackpearl.dto.ListFilter;
 import com.blackpearl.dto.NotificationDto;
+import com.blackpearl.model.Notification;
+import com.blackpearl.model.NotificationReadState;
+import com.blackpearl.model.User;
+import com.blackpearl.service.ConditionalGet;
+import com.blackpearl.service.NotificationRetentionService;
 import com.blackpearl.service.NotificationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/notifications")
@@ -17,26 +25,43 @@ import java.util.List;
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final ConditionalGet conditionalGet;
+    private final NotificationRetentionService retentionService;
 
     @GetMapping("/my")
-    public List<NotificationDto> getMine(Authentication auth) {
-        return notificationService.getNotificationsForUser(auth.getName());
+    public ResponseEntity<List<NotificationDto>> getMine(Authentication auth, ListFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        return conditionalGet.respond(request,
+                () -> notificationService.getNotificationsForUser(auth.getName(), filter, cursor, size).toResponse(),
+                Notification.class, NotificationReadState.class, User.class);
     }
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public List<NotificationDto> getAll() {
-        return notificationService.getAllNotifications();
+    public ResponseEntity<List<NotificationDto>> getAll(ListFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        return conditionalGet.respond(request,
+                () -> notificationService.getAllNotifications(filter, cursor, size).toResponse(),
+                Notification.class, NotificationReadState.class, User.class);
     }
 
+    @GetMapping("/unread-count")
+    public ResponseEntity<Map<String, Long>> unreadCount(Authentication auth) {
+        return ResponseEntity.ok(Map.of("unread", notificationService.unreadCount(auth.getName())));
+    }
+
+    /** Accepted now, written with other acknowledgements shortly after. */
     @PatchMapping("/{id}/read")
-    public ResponseEntity<NotificationDto> markRead(@PathVariable Long id) {
-        return ResponseEntity.ok(notificationService.markRead(id));
+    public ResponseEntity<Void> markRead(Authentication auth, @PathVariable Long id) {
+        notificationService.markRead(auth.getName(), id);
+        return ResponseEntity.accepted().build();
     }
 
     @PatchMapping("/read-all")
-    public ResponseEntity<Void> markAllRead() {
-        notificationService.markAllRead();
+    public ResponseEntity<Void> markAllRead(Authentication auth) {
+        notificationService.markAllRead(auth.getName());
         return ResponseEntity.noContent().build();
     }
 
@@ -46,6 +71,25 @@ public class NotificationController {
         return ResponseEntity.ok(notificationService.sendNotification(req));
     }
 
+    /** Runs the retention purge now and returns its report. */
+    @PostMapping("/purge")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> purge() {
+        return ResponseEntity.ok(retentionService.purge());
+    }
+
+    @GetMapping("/purge-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> purgeStats() {
+        return ResponseEntity.ok(retentionService.stats());
+    }
+
+    @GetMapping("/read-buffer-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> readBufferStats() {
+        return ResponseEntity.ok(notificationService.readBufferStats());
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
@@ -1,12 +1,18 @@
 package com.blackpearl.controller;
 
+import com.blackpearl.dto.ListFilter;
 import com.blackpearl.dto.PaymentDto;
+import com.blackpearl.model.Payment;
+import com.blackpearl.model.User;
+import com.blackpearl.service.ConditionalGet;
 import com.blackpearl.service.PaymentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -20,21 +26,36 @@ import java.util.Map;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final ConditionalGet conditionalGet;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public List<PaymentDto> getAll() {
-        return paymentService.getAllPayments();
+    public ResponseEntity<List<PaymentDto>> getAll(ListFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        return conditionalGet.respond(request, () -> paymentService.getAllPayments(filter, cursor, size).toResponse(),
+                Payment.class, User.class);
     }
 
     @GetMapping("/my")
-    public List<PaymentDto> getMine(Authentication auth) {
-        return paymentService.getPaymentsByUser(auth.getName());
+    public ResponseEntity<List<PaymentDto>> getMine(Authentication auth, ListFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        return conditionalGet.respond(request,
+                () -> paymentService.getPaymentsByUser(auth.getName(), filter, cursor, size).toResponse(),
+                Payment.class, User.class);
+    }
+
+    /** Full history as CSV or NDJSON ({@code ?format=}), streamed without buffering. */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false) String format) {
+        return paymentService.exportPayments(format);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<PaymentDto> getById(@PathVariable Long id) {
-        return ResponseEntity.ok(paymentService.getPaymentById(id));
+    public ResponseEntity<PaymentDto> getById(@PathVariable Long id, WebRequest request) {
+        return conditionalGet.respond(request, () -> ResponseEntity.ok(paymentService.getPaymentById(id)),
+                Payment.class, User.class);
     }
 
     @PostMapping
@@ -5,9 +5,11 @@ import com.blackpearl.dto.TenderDto;
 import com.blackpearl.service.InventoryService;
 import com.blackpearl.service.TenderService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -26,8 +28,9 @@ public class PublicController {
      * Returns open tenders for display on the landing page.
      */
     @GetMapping("/tenders")
-    public List<TenderDto> getOpenTenders() {
-        return tenderService.getOpenTenders();
+    public ResponseEntity<List<TenderDto>> getOpenTenders(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return tenderService.getOpenTenders(cursor, size).toResponse();
     }
 
     /**
@@ -35,7 +38,8 @@ public class PublicController {
      * Returns available inventory items for display on the landing page.
      */
     @GetMapping("/inventory")
-    public List<InventoryDto> getAvailableInventory() {
-        return inventoryService.getAvailableItems();
+    public ResponseEntity<List<InventoryDto>> getAvailableInventory(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return inventoryService.getAvailableItems(cursor, size).toResponse();
     }
 }
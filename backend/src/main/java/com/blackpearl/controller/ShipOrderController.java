@@ -1,12 +1,18 @@
 package com.blackpearl.controller;
 
+import com.blackpearl.dto.ListFilter;
 import com.blackpearl.dto.ShipOrderDto;
+import com.blackpearl.model.ShipOrder;
+import com.blackpearl.model.User;
+import com.blackpearl.service.ConditionalGet;
 import com.blackpearl.service.ShipOrderService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -19,21 +25,36 @@ import java.util.List;
 public class ShipOrderController {
 
     private final ShipOrderService shipOrderService;
+    private final ConditionalGet conditionalGet;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public List<ShipOrderDto> getAll() {
-        return shipOrderService.getAllOrders();
+    public ResponseEntity<List<ShipOrderDto>> getAll(ListFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        return conditionalGet.respond(request, () -> shipOrderService.getAllOrders(filter, cursor, size).toResponse(),
+                ShipOrder.class, User.class);
     }
 
     @GetMapping("/my")
-    public List<ShipOrderDto> getMine(Authentication auth) {
-        return shipOrderService.getOrdersByUser(auth.getName());
+    public ResponseEntity<List<ShipOrderDto>> getMine(Authentication auth, ListFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        return conditionalGet.respond(request,
+                () -> shipOrderService.getOrdersByUser(auth.getName(), filter, cursor, size).toResponse(),
+                ShipOrder.class, User.class);
+    }
+
+    /** Full history as CSV or NDJSON ({@code ?format=}), streamed without buffering. */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false) String format) {
+        return shipOrderService.exportOrders(format);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ShipOrderDto> getById(@PathVariable Long id) {
-        return ResponseEntity.ok(shipOrderService.getOrderById(id));
+    public ResponseEntity<ShipOrderDto> getById(@PathVariable Long id, WebRequest request) {
+        return conditionalGet.respond(request, () -> ResponseEntity.ok(shipOrderService.getOrderById(id)),
+                ShipOrder.class, User.class);
     }
 
     @PostMapping
@@ -1,13 +1,17 @@
 package com.blackpearl.controller;
 
+import com.blackpearl.dto.ListFilter;
 import com.blackpearl.dto.ShipRepairDto;
 import com.blackpearl.model.ShipRepair;
+import com.blackpearl.model.User;
+import com.blackpearl.service.ConditionalGet;
 import com.blackpearl.service.ShipRepairService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -21,16 +25,24 @@ import java.util.Map;
 public class ShipRepairController {
 
     private final ShipRepairService shipRepairService;
+    private final ConditionalGet conditionalGet;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public List<ShipRepairDto> getAll() {
-        return shipRepairService.getAllRepairs();
+    public ResponseEntity<List<ShipRepairDto>> getAll(ListFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        return conditionalGet.respond(request, () -> shipRepairService.getAllRepairs(filter, cursor, size).toResponse(),
+                ShipRepair.class, User.class);
     }
 
     @GetMapping("/my")
-    public List<ShipRepairDto> getMine(Authentication auth) {
-        return shipRepairService.getRepairsByUser(auth.getName());
+    public ResponseEntity<List<ShipRepairDto>> getMine(Authentication auth, ListFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        return conditionalGet.respond(request,
+                () -> shipRepairService.getRepairsByUser(auth.getName(), filter, cursor, size).toResponse(),
+                ShipRepair.class, User.class);
     }
 
     @PostMapping
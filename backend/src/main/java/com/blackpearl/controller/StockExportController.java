@@ -1,13 +1,18 @@
 package com.blackpearl.controller;
 
+import com.blackpearl.dto.ListFilter;
 import com.blackpearl.dto.StockExportDto;
 import com.blackpearl.model.StockExport;
+import com.blackpearl.model.User;
+import com.blackpearl.service.ConditionalGet;
 import com.blackpearl.service.StockExportService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -20,16 +25,31 @@ import java.util.List;
 public class StockExportController {
 
     private final StockExportService stockExportService;
+    private final ConditionalGet conditionalGet;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public List<StockExportDto> getAll() {
-        return stockExportService.getAllExports();
+    public ResponseEntity<List<StockExportDto>> getAll(ListFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        return conditionalGet.respond(request,
+                () -> stockExportService.getAllExports(filter, cursor, size).toResponse(),
+                StockExport.class, User.class);
     }
 
     @GetMapping("/my")
-    public List<StockExportDto> getMine(Authentication auth) {
-        return stockExportService.getExportsByUser(auth.getName());
+    public ResponseEntity<List<StockExportDto>> getMine(Authentication auth, ListFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        return conditionalGet.respond(request,
+                () -> stockExportService.getExportsByUser(auth.getName(), filter, cursor, size).toResponse(),
+                StockExport.class, User.class);
+    }
+
+    /** Full history as CSV or NDJSON ({@code ?format=}), streamed without buffering. */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false) String format) {
+        return stockExportService.exportStockExports(format);
     }
 
     @PostMapping
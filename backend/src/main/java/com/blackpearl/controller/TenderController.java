@@ -1,11 +1,15 @@
 package com.blackpearl.controller;
 
+import com.blackpearl.dto.ListFilter;
 import com.blackpearl.dto.TenderDto;
+import com.blackpearl.model.Tender;
+import com.blackpearl.service.ConditionalGet;
 import com.blackpearl.service.TenderService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -18,22 +22,31 @@ import java.util.Map;
 public class TenderController {
 
     private final TenderService tenderService;
+    private final ConditionalGet conditionalGet;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public List<TenderDto> getAll() {
-        return tenderService.getAllTenders();
+    public ResponseEntity<List<TenderDto>> getAll(ListFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        return conditionalGet.respond(request, () -> tenderService.getAllTenders(filter, cursor, size).toResponse(),
+                Tender.class);
     }
 
     @GetMapping("/open")
     @org.springframework.security.access.prepost.PreAuthorize("permitAll()")
-    public List<TenderDto> getOpen() {
-        return tenderService.getOpenTenders();
+    public ResponseEntity<List<TenderDto>> getOpen(ListFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        return conditionalGet.respond(request,
+                () -> tenderService.getOpenTenders(filter, cursor, size).toResponse(),
+                Tender.class);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<TenderDto> getById(@PathVariable Long id) {
-        return ResponseEntity.ok(tenderService.getTenderById(id));
+    public ResponseEntity<TenderDto> getById(@PathVariable Long id, WebRequest request) {
+        return conditionalGet.respond(request, () -> ResponseEntity.ok(tenderService.getTenderById(id)),
+                Tender.class);
     }
 
     @PostMapping
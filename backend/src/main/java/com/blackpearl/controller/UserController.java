@@ -1,11 +1,14 @@
 package com.blackpearl.controller;
 
 import com.blackpearl.dto.UserDto;
+import com.blackpearl.model.User;
+import com.blackpearl.service.ConditionalGet;
 import com.blackpearl.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -16,17 +19,21 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final ConditionalGet conditionalGet;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public List<UserDto> getAll() {
-        return userService.getAllUsers();
+    public ResponseEntity<List<UserDto>> getAll(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        return conditionalGet.respond(request, () -> userService.getAllUsers(cursor, size).toResponse(),
+                User.class);
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<UserDto> getById(@PathVariable Long id) {
-        return ResponseEntity.ok(userService.getUserById(id));
+    public ResponseEntity<UserDto> getById(@PathVariable Long id, WebRequest request) {
+        return conditionalGet.respond(request, () -> ResponseEntity.ok(userService.getUserById(id)),
+                User.class);
     }
 
     @PutMapping("/{id}")
@@ -0,0 +1,30 @@
+package com.blackpearl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated list. The body of a list response stays a plain JSON array;
+ * the cursor for the following page, if there is one, travels in the {@code X-Next-Cursor}
+ * header and is passed back as {@code ?cursor=}.
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    public ResponseEntity<List<T>> toResponse() {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextCursor != null) {
+            response.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return response.body(items);
+    }
+}
@@ -0,0 +1,38 @@
+package com.blackpearl.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Query parameters of the filtered list endpoints. Every field is optional and each endpoint
+ * uses the ones that apply to it; {@code min}/{@code max} bound the collection's value column
+ * (amount, tonnage, quantity, unit price or tender value). {@code sort} is {@code newest}
+ * (the default) or {@code oldest}. {@code fields} is a comma-separated list of DTO fields to
+ * return; the other columns are not read.
+ */
+@Data
+public class ListFilter {
+
+    /** Jackson filter id on the list DTOs that {@code fields} trims the JSON with. */
+    public static final String FIELDS_FILTER = "fields";
+
+    private String status;
+    private Long userId;
+    private String priority;
+    private String method;
+    private String category;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    private BigDecimal min;
+    private BigDecimal max;
+    private String sort;
+    private String fields;
+}
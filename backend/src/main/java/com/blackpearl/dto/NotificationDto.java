@@ -1,6 +1,7 @@
 package com.blackpearl.dto;
 
 import com.blackpearl.model.Notification.Type;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,6 +10,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Data
+@JsonFilter(ListFilter.FIELDS_FILTER)
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
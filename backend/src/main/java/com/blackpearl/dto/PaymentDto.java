@@ -1,12 +1,14 @@
 package com.blackpearl.dto;
 
 import com.blackpearl.model.Payment;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
+@JsonFilter(ListFilter.FIELDS_FILTER)
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
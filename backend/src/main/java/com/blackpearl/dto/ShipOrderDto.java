@@ -1,6 +1,7 @@
 package com.blackpearl.dto;
 
 import com.blackpearl.model.ShipOrder.Status;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -10,6 +11,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Data
+@JsonFilter(ListFilter.FIELDS_FILTER)
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -2,12 +2,14 @@ package com.blackpearl.dto;
 
 import com.blackpearl.model.ShipRepair.Priority;
 import com.blackpearl.model.ShipRepair.Status;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Data
+@JsonFilter(ListFilter.FIELDS_FILTER)
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -10,7 +10,9 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "inventory")
+@Table(name = "inventory", indexes = {
+        @Index(name = "idx_inventory_status", columnList = "status"),
+        @Index(name = "idx_inventory_category_status", columnList = "category, status") })
 @EntityListeners(AuditingEntityListener.class)
 @Getter
 @Setter
@@ -23,6 +25,10 @@ public class Inventory {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @Column(columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version;
+
     @Column(nullable = false, unique = true)
     private String itemCode;
 
@@ -8,7 +8,7 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = @Index(name = "idx_notifications_user", columnList = "user_id"))
 @EntityListeners(AuditingEntityListener.class)
 @Getter
 @Setter
@@ -21,6 +21,10 @@ public class Notification {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @Column(columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user; // null = broadcast to all
@@ -34,8 +38,6 @@ public class Notification {
     @Enumerated(EnumType.STRING)
     private Type type = Type.INFO;
 
-    private boolean read = false;
-
     @CreatedDate
     @Column(updatable = false)
     private LocalDateTime createdAt;
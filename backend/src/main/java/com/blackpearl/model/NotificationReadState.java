@@ -0,0 +1,32 @@
+package com.blackpearl.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * A user's read state over their own notifications and broadcasts: everything up to
+ * {@code readThroughId} is read, and so is each later notification with a
+ * {@link NotificationReceipt}. {@code unreadCount} counts the unread notifications addressed to
+ * the user and is kept current by the statements that send, read and delete them; unread
+ * broadcasts are counted from {@code readThroughId} when the badge is read, so sending one
+ * writes no rows here. Rows are only written with set-based statements and carry no version.
+ */
+@Entity
+@Table(name = "notification_read_state")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationReadState {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private long readThroughId;
+
+    @Column(nullable = false)
+    private long unreadCount;
+}
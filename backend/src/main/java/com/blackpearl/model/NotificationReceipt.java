@@ -0,0 +1,37 @@
+package com.blackpearl.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * A notification the user read individually, above their read-through watermark
+ * ({@link NotificationReadState}). Marking everything read removes the user's receipts.
+ */
+@Entity
+@Table(name = "notification_receipts", indexes = @Index(
+        name = "idx_notification_receipts_notification", columnList = "notification_id"))
+@IdClass(NotificationReceipt.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationReceipt {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "notification_id")
+    private Long notificationId;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private Long notificationId;
+    }
+}
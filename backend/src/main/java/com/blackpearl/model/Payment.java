@@ -9,7 +9,12 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+        @Index(name = "idx_payments_user", columnList = "user_id"),
+        @Index(name = "idx_payments_user_status", columnList = "user_id, status"),
+        @Index(name = "idx_payments_status_method", columnList = "status, method"),
+        @Index(name = "idx_payments_method", columnList = "method"),
+        @Index(name = "idx_payments_created_at", columnList = "created_at") })
 @EntityListeners(AuditingEntityListener.class)
 @Getter
 @Setter
@@ -22,6 +27,10 @@ public class Payment {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @Column(columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
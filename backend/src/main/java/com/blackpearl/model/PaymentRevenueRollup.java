@@ -0,0 +1,40 @@
+package com.blackpearl.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Completed payment revenue per calendar month of completion and payment method. Maintained
+ * alongside payment status changes so dashboards read a few rows instead of scanning payments.
+ */
+@Entity
+@Table(name = "payment_revenue_rollup", uniqueConstraints = @UniqueConstraint(
+        name = "uk_payment_revenue_rollup_month_method", columnNames = { "revenue_month", "method" }))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaymentRevenueRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** First day of the month the payments completed in. */
+    @Column(name = "revenue_month", nullable = false)
+    private LocalDate revenueMonth;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Payment.Method method;
+
+    @Column(precision = 15, scale = 2, nullable = false)
+    private BigDecimal revenue;
+
+    @Column(nullable = false)
+    private long paymentCount;
+}
@@ -10,7 +10,11 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "ship_orders")
+@Table(name = "ship_orders", indexes = {
+        @Index(name = "idx_ship_orders_user", columnList = "user_id"),
+        @Index(name = "idx_ship_orders_user_status", columnList = "user_id, status"),
+        @Index(name = "idx_ship_orders_status", columnList = "status"),
+        @Index(name = "idx_ship_orders_created_at", columnList = "created_at") })
 @EntityListeners(AuditingEntityListener.class)
 @Getter
 @Setter
@@ -23,6 +27,10 @@ public class ShipOrder {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @Column(columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
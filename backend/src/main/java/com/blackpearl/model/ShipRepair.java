@@ -9,7 +9,12 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "ship_repairs")
+@Table(name = "ship_repairs", indexes = {
+        @Index(name = "idx_ship_repairs_user", columnList = "user_id"),
+        @Index(name = "idx_ship_repairs_user_status", columnList = "user_id, status"),
+        @Index(name = "idx_ship_repairs_status_priority", columnList = "status, priority"),
+        @Index(name = "idx_ship_repairs_priority", columnList = "priority"),
+        @Index(name = "idx_ship_repairs_created_at", columnList = "created_at") })
 @EntityListeners(AuditingEntityListener.class)
 @Getter
 @Setter
@@ -22,6 +27,10 @@ public class ShipRepair {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @Column(columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -9,7 +9,11 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "stock_exports")
+@Table(name = "stock_exports", indexes = {
+        @Index(name = "idx_stock_exports_user", columnList = "user_id"),
+        @Index(name = "idx_stock_exports_user_status", columnList = "user_id, status"),
+        @Index(name = "idx_stock_exports_status", columnList = "status"),
+        @Index(name = "idx_stock_exports_created_at", columnList = "created_at") })
 @EntityListeners(AuditingEntityListener.class)
 @Getter
 @Setter
@@ -22,6 +26,10 @@ public class StockExport {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @Column(columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
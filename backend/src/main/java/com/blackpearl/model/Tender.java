@@ -10,7 +10,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tenders")
+@Table(name = "tenders", indexes = {
+        @Index(name = "idx_tenders_status", columnList = "status"),
+        @Index(name = "idx_tenders_category_status", columnList = "category, status") })
 @EntityListeners(AuditingEntityListener.class)
 @Getter
 @Setter
@@ -23,6 +25,10 @@ public class Tender {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @Column(columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version;
+
     @Column(nullable = false, unique = true)
     private String tenderNo;
 
@@ -1,6 +1,7 @@
 package com.blackpearl.repository;
 
 import com.blackpearl.model.Inventory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -13,4 +14,7 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     List<Inventory> findByStatus(Inventory.Status status);
 
     boolean existsByItemCode(String itemCode);
+
+    /** Keyset page, newest first: rows with the status and id below {@code before}. */
+    List<Inventory> findByStatusAndIdLessThanOrderByIdDesc(Inventory.Status status, Long before, Limit limit);
 }
@@ -0,0 +1,15 @@
+package com.blackpearl.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Row of a revenue-by-month aggregate query.
+ */
+public interface MonthlyRevenue {
+
+    Integer getRevenueYear();
+
+    Integer getRevenueMonth();
+
+    BigDecimal getRevenue();
+}
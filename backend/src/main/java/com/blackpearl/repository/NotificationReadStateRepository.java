@@ -0,0 +1,131 @@
+package com.blackpearl.repository;
+
+import com.blackpearl.model.NotificationReadState;
+import com.blackpearl.model.NotificationReceipt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read state and receipts. Every write is a single statement scoped by user or notification,
+ * so none of them grows with the notification history. Counters cover direct notifications
+ * only; broadcasts are compared against the reader's watermark when counted, so sending one
+ * writes no read state.
+ */
+@Repository
+public interface NotificationReadStateRepository extends JpaRepository<NotificationReadState, Long> {
+
+    /**
+     * The user's unread direct notifications plus the broadcasts above their watermark they hold
+     * no receipt for, a range of idx_notifications_user.
+     */
+    @Query(value = "SELECT s.unread_count + (SELECT COUNT(*) FROM notifications n " +
+            "WHERE n.user_id IS NULL AND n.id > s.read_through_id AND NOT EXISTS (SELECT 1 " +
+            "FROM notification_receipts r WHERE r.user_id = s.user_id AND r.notification_id = n.id)) " +
+            "FROM notification_read_state s WHERE s.user_id = :userId", nativeQuery = true)
+    Optional<Long> findUnreadCount(@Param("userId") Long userId);
+
+    @Query("SELECT r FROM NotificationReceipt r WHERE r.notificationId IN :notificationIds")
+    List<NotificationReceipt> findReceipts(@Param("notificationIds") Collection<Long> notificationIds);
+
+    /**
+     * Creates the user's row with nothing read up to a watermark yet: every notification
+     * addressed to them without a receipt counts as unread. A no-op if it already exists.
+     * <p>
+     * A direct notification is only sent once its recipient has a row, so the count and the
+     * increment that follows the insert never both miss or both include it.
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO notification_read_state (user_id, read_through_id, unread_count) " +
+            "SELECT :userId, 0, COUNT(*) FROM notifications n WHERE n.user_id = :userId " +
+            "AND NOT EXISTS (SELECT 1 FROM notification_receipts r " +
+            "WHERE r.user_id = :userId AND r.notification_id = n.id)", nativeQuery = true)
+    int createIfAbsent(@Param("userId") Long userId);
+
+    /**
+     * Marks everything up to {@code readThroughId} read on an existing row. Only notifications
+     * created since then remain unread, a short primary key range.
+     */
+    @Modifying
+    @Query(value = "UPDATE notification_read_state s SET " +
+            "s.read_through_id = GREATEST(s.read_through_id, :readThroughId), " +
+            "s.unread_count = (SELECT COUNT(*) FROM notifications n WHERE n.user_id = s.user_id " +
+            "AND n.id > GREATEST(s.read_through_id, :readThroughId) AND NOT EXISTS (SELECT 1 " +
+            "FROM notification_receipts r WHERE r.user_id = s.user_id AND r.notification_id = n.id)) " +
+            "WHERE s.user_id = :userId", nativeQuery = true)
+    int markReadThrough(@Param("userId") Long userId, @Param("readThroughId") Long readThroughId);
+
+    @Modifying
+    @Query(value = "DELETE FROM notification_receipts WHERE user_id = :userId AND notification_id <= :readThroughId",
+            nativeQuery = true)
+    int deleteReceiptsThrough(@Param("userId") Long userId, @Param("readThroughId") Long readThroughId);
+
+    /**
+     * Receipts for those of the notifications addressed to the user that are above their
+     * watermark. Returns how many were new, i.e. how many to take off their unread count.
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO notification_receipts (user_id, notification_id) " +
+            "SELECT :userId, n.id FROM notifications n WHERE n.id IN :notificationIds " +
+            "AND n.user_id = :userId AND n.id > COALESCE((SELECT s.read_through_id " +
+            "FROM notification_read_state s WHERE s.user_id = :userId), 0)", nativeQuery = true)
+    int addReceipts(@Param("userId") Long userId, @Param("notificationIds") Collection<Long> notificationIds);
+
+    /** The same for broadcasts, which are counted from the receipts directly. */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO notification_receipts (user_id, notification_id) " +
+            "SELECT :userId, n.id FROM notifications n WHERE n.id IN :notificationIds " +
+            "AND n.user_id IS NULL AND n.id > COALESCE((SELECT s.read_through_id " +
+            "FROM notification_read_state s WHERE s.user_id = :userId), 0)", nativeQuery = true)
+    int addBroadcastReceipts(@Param("userId") Long userId,
+            @Param("notificationIds") Collection<Long> notificationIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM notification_receipts WHERE notification_id = :notificationId", nativeQuery = true)
+    int deleteReceiptsFor(@Param("notificationId") Long notificationId);
+
+    @Modifying
+    @Query(value = "UPDATE notification_read_state SET unread_count = unread_count + 1 WHERE user_id = :userId",
+            nativeQuery = true)
+    int incrementUnread(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "UPDATE notification_read_state SET unread_count = GREATEST(unread_count - :count, 0) " +
+            "WHERE user_id = :userId", nativeQuery = true)
+    int decrementUnread(@Param("userId") Long userId, @Param("count") long count);
+
+    /**
+     * Takes a direct notification being deleted out of its recipient's unread count, unless they
+     * have read it.
+     */
+    @Modifying
+    @Query(value = "UPDATE notification_read_state s SET s.unread_count = s.unread_count - 1 " +
+            "WHERE s.user_id = :userId AND s.read_through_id < :notificationId " +
+            "AND s.unread_count > 0 AND NOT EXISTS (SELECT 1 FROM notification_receipts r " +
+            "WHERE r.user_id = s.user_id AND r.notification_id = :notificationId)", nativeQuery = true)
+    int decrementUnreadFor(@Param("notificationId") Long notificationId, @Param("userId") Long userId);
+
+    /**
+     * Ahead of a retention purge: takes the purged notifications out of the counts of their
+     * recipients, by primary key. Those purged as read are not in the counts already.
+     */
+    @Modifying
+    @Query(value = "UPDATE notification_read_state s SET s.unread_count = GREATEST(s.unread_count - (" +
+            "SELECT COUNT(*) FROM notifications n WHERE n.id IN :notificationIds " +
+            "AND n.user_id = s.user_id AND n.id > s.read_through_id " +
+            "AND NOT EXISTS (SELECT 1 FROM notification_receipts r " +
+            "WHERE r.user_id = s.user_id AND r.notification_id = n.id)), 0) " +
+            "WHERE s.user_id IN :userIds", nativeQuery = true)
+    int decrementUnreadForPurge(@Param("userIds") Collection<Long> userIds,
+            @Param("notificationIds") Collection<Long> notificationIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM notification_receipts WHERE notification_id IN :notificationIds", nativeQuery = true)
+    int deleteReceiptsForAll(@Param("notificationIds") Collection<Long> notificationIds);
+}
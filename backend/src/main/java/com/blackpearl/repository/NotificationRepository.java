@@ -2,16 +2,47 @@ package com.blackpearl.repository;
 
 import com.blackpearl.model.Notification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
-    // Get notifications for a specific user OR broadcast (user = null)
-    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId OR n.user IS NULL ORDER BY n.createdAt DESC")
-    List<Notification> findByUserIdOrBroadcast(Long userId);
 
-    List<Notification> findByUserIsNull(); // broadcast notifications
+    @Query("SELECT MAX(n.id) FROM Notification n")
+    Long findMaxId();
+
+    @Query("SELECT MIN(n.id) FROM Notification n WHERE n.id > :afterId")
+    Long findMinIdAfter(@Param("afterId") Long afterId);
+
+    @Query("SELECT COUNT(n) > 0 FROM Notification n WHERE n.id BETWEEN :fromId AND :toId AND n.createdAt >= :since")
+    boolean existsCreatedSinceBetween(@Param("fromId") Long fromId, @Param("toId") Long toId,
+            @Param("since") LocalDateTime since);
+
+    /**
+     * Retention candidates of one primary key range and type, as {@code [id, user_id]} rows:
+     * notifications created before {@code unreadCutoff}, and direct ones created before
+     * {@code readCutoff} that their recipient has read. The rows are locked, so no receipt for
+     * them is written until the purge commits.
+     */
+    @Query(value = "SELECT id, user_id FROM notifications WHERE id BETWEEN :fromId AND :toId " +
+            "AND COALESCE(type, 'INFO') = :type AND (created_at < :unreadCutoff " +
+            "OR (created_at < :readCutoff AND user_id IS NOT NULL AND (" +
+            "EXISTS (SELECT 1 FROM notification_read_state s " +
+            "WHERE s.user_id = notifications.user_id AND s.read_through_id >= notifications.id) " +
+            "OR EXISTS (SELECT 1 FROM notification_receipts r " +
+            "WHERE r.user_id = notifications.user_id AND r.notification_id = notifications.id)))) " +
+            "FOR UPDATE", nativeQuery = true)
+    List<Object[]> findPurgeableBetween(@Param("fromId") Long fromId, @Param("toId") Long toId,
+            @Param("type") String type, @Param("readCutoff") LocalDateTime readCutoff,
+            @Param("unreadCutoff") LocalDateTime unreadCutoff);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
 }
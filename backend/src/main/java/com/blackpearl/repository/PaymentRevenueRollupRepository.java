@@ -0,0 +1,52 @@
+package com.blackpearl.repository;
+
+import com.blackpearl.model.PaymentRevenueRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface PaymentRevenueRollupRepository extends JpaRepository<PaymentRevenueRollup, Long> {
+
+    /**
+     * Adds the amount and count to the (month, method) row, creating it if needed. Uses the row
+     * alias form of the upsert (MySQL 8.0.19+); {@code VALUES(col)} there is deprecated.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO payment_revenue_rollup (revenue_month, method, revenue, payment_count) " +
+            "VALUES (:month, :method, :amount, :count) AS new " +
+            "ON DUPLICATE KEY UPDATE revenue = payment_revenue_rollup.revenue + new.revenue, " +
+            "payment_count = payment_revenue_rollup.payment_count + new.payment_count", nativeQuery = true)
+    int addRevenue(@Param("month") LocalDate month, @Param("method") String method,
+            @Param("amount") BigDecimal amount, @Param("count") long count);
+
+    /** Rebuilds every row from the completed payments. Intended for an empty table. */
+    @Modifying
+    @Query(value = "INSERT INTO payment_revenue_rollup (revenue_month, method, revenue, payment_count) " +
+            "SELECT DATE_FORMAT(COALESCE(p.approved_at, p.created_at), '%Y-%m-01'), p.method, " +
+            "SUM(p.amount), COUNT(*) FROM payments p " +
+            "WHERE p.status = 'COMPLETED' AND COALESCE(p.approved_at, p.created_at) IS NOT NULL " +
+            "GROUP BY DATE_FORMAT(COALESCE(p.approved_at, p.created_at), '%Y-%m-01'), p.method",
+            nativeQuery = true)
+    int backfillFromPayments();
+
+    @Query("SELECT COALESCE(SUM(r.revenue), 0) FROM PaymentRevenueRollup r " +
+            "WHERE r.revenueMonth >= :start AND r.revenueMonth < :end")
+    BigDecimal sumRevenueBetween(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    @Query("SELECT COALESCE(SUM(r.revenue), 0) FROM PaymentRevenueRollup r")
+    BigDecimal sumTotalRevenue();
+
+    /** Revenue per month across all methods, for months in [start, end). */
+    @Query("SELECT YEAR(r.revenueMonth) AS revenueYear, MONTH(r.revenueMonth) AS revenueMonth, " +
+            "SUM(r.revenue) AS revenue FROM PaymentRevenueRollup r " +
+            "WHERE r.revenueMonth >= :start AND r.revenueMonth < :end " +
+            "GROUP BY YEAR(r.revenueMonth), MONTH(r.revenueMonth)")
+    List<MonthlyRevenue> sumRevenueByMonth(@Param("start") LocalDate start, @Param("end") LocalDate end);
+}
@@ -1,14 +1,41 @@
 package com.blackpearl.repository;
 
 import com.blackpearl.model.ShipOrder;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ShipOrderRepository extends JpaRepository<ShipOrder, Long> {
     List<ShipOrder> findByUserId(Long userId);
 
+    /**
+     * Every row with its owner, oldest first, streamed from the server row by row. Must be
+     * consumed inside a transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingQueries.ROW_BY_ROW_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT o FROM ShipOrder o JOIN FETCH o.user ORDER BY o.id")
+    Stream<ShipOrder> streamAllWithUser();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingQueries.ROW_BY_ROW_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT o FROM ShipOrder o JOIN FETCH o.user WHERE o.user.id = :userId ORDER BY o.id")
+    Stream<ShipOrder> streamByUserIdWithUser(@Param("userId") Long userId);
+
     List<ShipOrder> findByStatus(ShipOrder.Status status);
+
+    long countByUserId(Long userId);
+
+    @Query("SELECT o.status AS status, COUNT(o) AS total FROM ShipOrder o GROUP BY o.status")
+    List<StatusCount<ShipOrder.Status>> countGroupByStatus();
 }
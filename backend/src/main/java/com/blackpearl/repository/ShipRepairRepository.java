@@ -11,4 +11,6 @@ public interface ShipRepairRepository extends JpaRepository<ShipRepair, Long> {
     List<ShipRepair> findByUserId(Long userId);
 
     List<ShipRepair> findByStatus(ShipRepair.Status status);
+
+    long countByUserId(Long userId);
 }
@@ -0,0 +1,11 @@
+package com.blackpearl.repository;
+
+/**
+ * Row of a {@code GROUP BY status} count query.
+ */
+public interface StatusCount<S extends Enum<S>> {
+
+    S getStatus();
+
+    Long getTotal();
+}
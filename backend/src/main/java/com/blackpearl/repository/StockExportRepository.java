@@ -1,14 +1,38 @@
 package com.blackpearl.repository;
 
 import com.blackpearl.model.StockExport;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface StockExportRepository extends JpaRepository<StockExport, Long> {
     List<StockExport> findByUserId(Long userId);
 
+    /**
+     * Every row with its owner, oldest first, streamed from the server row by row. Must be
+     * consumed inside a transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingQueries.ROW_BY_ROW_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT e FROM StockExport e JOIN FETCH e.user ORDER BY e.id")
+    Stream<StockExport> streamAllWithUser();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingQueries.ROW_BY_ROW_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT e FROM StockExport e JOIN FETCH e.user WHERE e.user.id = :userId ORDER BY e.id")
+    Stream<StockExport> streamByUserIdWithUser(@Param("userId") Long userId);
+
     List<StockExport> findByStatus(StockExport.Status status);
+
+    long countByUserId(Long userId);
 }
@@ -0,0 +1,16 @@
+package com.blackpearl.repository;
+
+/**
+ * Hint values for repository methods that return a {@code Stream}.
+ */
+public final class StreamingQueries {
+
+    /**
+     * MySQL Connector/J only streams a result set row by row, instead of buffering all of it in
+     * the client, when the fetch size is {@code Integer.MIN_VALUE}.
+     */
+    public static final String ROW_BY_ROW_FETCH_SIZE = "" + Integer.MIN_VALUE;
+
+    private StreamingQueries() {
+    }
+}
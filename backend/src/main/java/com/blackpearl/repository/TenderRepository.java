@@ -10,5 +10,7 @@ import java.util.List;
 public interface TenderRepository extends JpaRepository<Tender, Long> {
     List<Tender> findByStatus(Tender.Status status);
 
+    long countByStatus(Tender.Status status);
+
     boolean existsByTenderNo(String tenderNo);
 }
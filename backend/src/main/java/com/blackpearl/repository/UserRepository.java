@@ -1,9 +1,11 @@
 package com.blackpearl.repository;
 
 import com.blackpearl.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +13,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
     long countByEmail(String email);
+
+    /** Keyset page, newest first: rows with id below {@code before}. */
+    List<User> findByIdLessThanOrderByIdDesc(Long before, Limit limit);
 }
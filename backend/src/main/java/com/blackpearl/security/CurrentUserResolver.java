@@ -0,0 +1,55 @@
+package com.blackpearl.security;
+
+import com.blackpearl.exception.ResourceNotFoundException;
+import com.blackpearl.model.User;
+import com.blackpearl.repository.UserRepository;
+import com.blackpearl.service.UserIdentityCache;
+import com.blackpearl.service.UserIdentityCache.UserIdentity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves the calling user from the security context. The id comes straight from the
+ * {@link CustomUserDetails} principal and entity references are JPA proxies, so neither
+ * costs a SELECT; the full identity row is served from {@link UserIdentityCache}.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUserResolver {
+
+    private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
+
+    public Long currentUserId() {
+        Long id = SecurityUtils.getCurrentUserId();
+        if (id == null) {
+            throw new ResourceNotFoundException("Current user not found");
+        }
+        return id;
+    }
+
+    /** Uninitialised reference to the current user, suitable for setting associations. */
+    public User currentUserReference() {
+        return userRepository.getReferenceById(currentUserId());
+    }
+
+    public UserIdentity currentUser() {
+        return userIdentityCache.get(currentUserId());
+    }
+
+    /**
+     * Id of the user with the given email, taken from the principal when it is the caller
+     * (the usual case, as controllers pass {@code auth.getName()}).
+     */
+    public Long resolveUserId(String email) {
+        CustomUserDetails principal = SecurityUtils.getCurrentUser();
+        if (principal != null && principal.getEmail().equals(email)) {
+            return principal.getId();
+        }
+        return userIdentityCache.getByEmail(email).id();
+    }
+
+    public User referenceFor(String email) {
+        return userRepository.getReferenceById(resolveUserId(email));
+    }
+}
@@ -30,6 +30,20 @@ public class CustomUserDetails implements UserDetails {
         this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
     }
 
+    /**
+     * Principal rebuilt from verified token claims, without a database lookup. Carries no
+     * password; tokens are only ever issued to active users.
+     */
+    public CustomUserDetails(Long id, String email, User.Role role, User.Department department) {
+        this.id = id;
+        this.email = email;
+        this.password = null;
+        this.role = role;
+        this.department = department;
+        this.active = true;
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
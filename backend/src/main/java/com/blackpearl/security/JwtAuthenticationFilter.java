@@ -1,11 +1,13 @@
 package com.blackpearl.security;
 
 import com.blackpearl.service.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -22,6 +24,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsServiceImpl userDetailsService;
+    private final TokenRevocationList revocationList;
+
+    @Value("${jwt.stateless:true}")
+    private boolean stateless;
 
     @Override
     protected void doFilterInternal(
@@ -38,10 +44,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String jwt = authHeader.substring(7);
         try {
-            final String userEmail = jwtUtil.extractUsername(jwt);
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
-                if (jwtUtil.isTokenValid(jwt, userDetails)) {
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                // Signature and expiry are checked exactly once here; the claims are reused below.
+                final Claims claims = jwtUtil.validateToken(jwt);
+                UserDetails userDetails = resolveUserDetails(claims);
+                if (userDetails != null) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails,
                             null, userDetails.getAuthorities());
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -54,4 +61,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails resolveUserDetails(Claims claims) {
+        final String userEmail = claims.getSubject();
+        if (userEmail == null || !JwtUtil.TYPE_ACCESS.equals(jwtUtil.getType(claims))
+                || revocationList.isRevoked(claims.getId())) {
+            return null;
+        }
+        if (stateless && claims.get("ver") != null && !jwtUtil.isIssuedBeforeStartup(claims)) {
+            // Trust the signed claims unless the user's token version has moved on since signing.
+            return jwtUtil.isVersionCurrent(claims) ? jwtUtil.toUserDetails(claims) : null;
+        }
+        UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
+        return userEmail.equals(userDetails.getUsername()) && userDetails.isEnabled() ? userDetails : null;
+    }
 }
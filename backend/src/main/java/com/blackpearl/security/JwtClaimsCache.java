@@ -0,0 +1,78 @@
+package com.blackpearl.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of already-verified JWT claims, keyed by the SHA-256 digest of the raw token.
+ * An entry never outlives the token it was verified from: expired entries are dropped on read
+ * and swept whenever the cache reaches its size limit.
+ */
+class JwtClaimsCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private record Entry(Claims claims, long expiresAtMillis) {
+    }
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    JwtClaimsCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    static String digest(String token) {
+        MessageDigest md = SHA_256.get();
+        md.reset();
+        return Base64.getEncoder().encodeToString(md.digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    Claims get(String digest) {
+        Entry entry = entries.get(digest);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() <= System.currentTimeMillis()) {
+            entries.remove(digest, entry);
+            return null;
+        }
+        return entry.claims();
+    }
+
+    void put(String digest, Claims claims) {
+        Date exp = claims.getExpiration();
+        if (maxSize <= 0 || exp == null) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evictExpired();
+            if (entries.size() >= maxSize) {
+                // Still full of live tokens: skip caching rather than grow past the bound.
+                return;
+            }
+        }
+        entries.put(digest, new Entry(claims, exp.getTime()));
+    }
+
+    void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(e -> e.expiresAtMillis() <= now);
+    }
+
+    int size() {
+        return entries.size();
+    }
+}
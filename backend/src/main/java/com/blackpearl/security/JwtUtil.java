@@ -1,33 +1,56 @@
 package com.blackpearl.security;
 
+import com.blackpearl.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
+@RequiredArgsConstructor
 public class JwtUtil {
 
+    private final TokenVersionRegistry tokenVersions;
+
     @Value("${jwt.secret}")
     private String secret;
 
+    public static final String TYPE_ACCESS = "access";
+    public static final String TYPE_REFRESH = "refresh";
+
     @Value("${jwt.expiration}")
     private long expiration;
 
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(
-                java.util.Base64.getEncoder().encodeToString(secret.getBytes()));
-        return Keys.hmacShaKeyFor(keyBytes);
+    @Value("${jwt.refresh-expiration:604800000}")
+    private long refreshExpiration;
+
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private int claimsCacheMaxSize;
+
+    // Built once: the key and parser are immutable and thread-safe.
+    private Key signingKey;
+    private JwtParser parser;
+    private JwtClaimsCache claimsCache;
+
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.claimsCache = new JwtClaimsCache(claimsCacheMaxSize);
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -39,20 +62,104 @@ public class JwtUtil {
                 claims.put("department", customUser.getDepartment().name());
             }
             claims.put("email", customUser.getEmail());
+            claims.put("ver", tokenVersions.current(customUser.getId()));
         }
         return generateToken(claims, userDetails);
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        claims.putIfAbsent("typ", TYPE_ACCESS);
+        return sign(claims, userDetails.getUsername(), expiration);
+    }
+
+    /**
+     * Long-lived token accepted only by the refresh endpoint. It carries just enough to find the
+     * user and check the token version; the role is re-read when a new access token is issued.
+     */
+    public String generateRefreshToken(CustomUserDetails user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("typ", TYPE_REFRESH);
+        claims.put("userId", user.getId());
+        claims.put("ver", tokenVersions.current(user.getId()));
+        return sign(claims, user.getUsername(), refreshExpiration);
+    }
+
+    private String sign(Map<String, Object> claims, String subject, long ttlMillis) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
-                .setClaims(extraClaims)
-                .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
+                .setSubject(subject)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + ttlMillis))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    public long getExpiration() {
+        return expiration;
+    }
+
+    /** Token type; tokens minted before types were introduced are access tokens. */
+    public String getType(Claims claims) {
+        String type = claims.get("typ", String.class);
+        return type != null ? type : TYPE_ACCESS;
+    }
+
+    /**
+     * Verifies the token signature and expiry and returns its claims. Each distinct token is
+     * verified once; repeat calls are served from the claims cache until the token expires.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     */
+    public Claims validateToken(String token) {
+        String digest = JwtClaimsCache.digest(token);
+        Claims claims = claimsCache.get(digest);
+        if (claims == null) {
+            claims = parser.parseClaimsJws(token).getBody();
+            claimsCache.put(digest, claims);
+        }
+        return claims;
+    }
+
+    /**
+     * Whether the claims can stand in for a user lookup: the token was issued by this instance
+     * and its version is still current. Tokens issued before startup predate the in-memory
+     * version table and must be checked against the database.
+     */
+    public boolean isVersionCurrent(Claims claims) {
+        Long userId = getUserId(claims);
+        Number ver = claims.get("ver", Number.class);
+        Date issuedAt = claims.getIssuedAt();
+        return userId != null && ver != null && issuedAt != null
+                && issuedAt.getTime() >= tokenVersions.getStartedAt()
+                && ver.intValue() == tokenVersions.current(userId);
+    }
+
+    /**
+     * Whether the token was issued before this instance started, i.e. before the version table
+     * could have recorded a revocation for it.
+     */
+    public boolean isIssuedBeforeStartup(Claims claims) {
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt == null || issuedAt.getTime() < tokenVersions.getStartedAt();
+    }
+
+    public CustomUserDetails toUserDetails(Claims claims) {
+        String department = claims.get("department", String.class);
+        return new CustomUserDetails(
+                getUserId(claims),
+                claims.getSubject(),
+                User.Role.valueOf(claims.get("role", String.class)),
+                department != null ? User.Department.valueOf(department) : null);
+    }
+
+    public Long getUserId(Claims claims) {
+        Number userId = claims.get("userId", Number.class);
+        return userId != null ? userId.longValue() : null;
+    }
+
     public boolean isTokenValid(String token, UserDetails userDetails) {
         final String username = extractUsername(token);
         return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
@@ -67,18 +174,10 @@ public class JwtUtil {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = validateToken(token);
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
     private boolean isTokenExpired(String token) {
         return extractExpiration(token).before(new Date());
     }
@@ -0,0 +1,177 @@
+package com.blackpearl.security;
+
+import com.blackpearl.config.ThrottleProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission filter for the throttled {@code /auth} endpoints. Requests over the per-address or
+ * per-account limit are answered with 429 here, before any password hashing or database access.
+ * Bodies larger than {@value #MAX_BODY} bytes are refused with 413, so none escapes the account
+ * limit; bodies without a readable email share one account bucket.
+ */
+@Component
+@RequiredArgsConstructor
+public class LoginThrottleFilter extends OncePerRequestFilter {
+
+    private static final int MAX_BODY = 8 * 1024;
+    private static final String NO_ACCOUNT = "";
+
+    private final ThrottleProperties properties;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, TokenBucketLimiter> ipLimiters = new HashMap<>();
+    private final Map<String, TokenBucketLimiter> accountLimiters = new HashMap<>();
+
+    @PostConstruct
+    void init() {
+        properties.getEndpoints().values().forEach(endpoint -> {
+            if (endpoint.getIp() != null) {
+                ipLimiters.put(endpoint.getPath(), limiter(endpoint.getIp()));
+            }
+            if (endpoint.getAccount() != null) {
+                accountLimiters.put(endpoint.getPath(), limiter(endpoint.getAccount()));
+            }
+        });
+    }
+
+    private TokenBucketLimiter limiter(ThrottleProperties.Limit limit) {
+        return new TokenBucketLimiter(limit.getCapacity(), limit.getRefillPeriod(), properties.getIdleTimeout());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String path = request.getServletPath();
+        return !properties.isEnabled() || !"POST".equals(request.getMethod())
+                || (!ipLimiters.containsKey(path) && !accountLimiters.containsKey(path));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        String path = request.getServletPath();
+
+        TokenBucketLimiter ipLimiter = ipLimiters.get(path);
+        if (ipLimiter != null) {
+            long wait = ipLimiter.tryAcquire(request.getRemoteAddr());
+            if (wait > 0) {
+                reject(response, wait);
+                return;
+            }
+        }
+
+        TokenBucketLimiter accountLimiter = accountLimiters.get(path);
+        if (accountLimiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // The email is in the JSON body; buffer it so the controller can still read it.
+        byte[] body = request.getInputStream().readNBytes(MAX_BODY + 1);
+        if (body.length > MAX_BODY) {
+            response.setStatus(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), Map.of("message", "Request body too large"));
+            return;
+        }
+
+        String email = extractEmail(body);
+        long wait = accountLimiter.tryAcquire(email != null ? email : NO_ACCOUNT);
+        if (wait > 0) {
+            reject(response, wait);
+            return;
+        }
+
+        filterChain.doFilter(new CachedBodyRequest(request, body), response);
+    }
+
+    private String extractEmail(byte[] body) {
+        try {
+            JsonNode email = objectMapper.readTree(body).get("email");
+            return email != null && email.isTextual() ? email.asText().trim().toLowerCase(Locale.ROOT) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+        response.setStatus(429);
+        response.setHeader("Retry-After", String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                Map.of("message", "Too many attempts. Please try again in " + retryAfter + " seconds."));
+    }
+
+    /** Replays the buffered body. */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final ByteArrayInputStream body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return body.read();
+                }
+
+                @Override
+                public int read(byte[] buf, int off, int len) {
+                    return body.read(buf, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return body.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /** The body is already in memory: all of it is available at once. */
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+    }
+}
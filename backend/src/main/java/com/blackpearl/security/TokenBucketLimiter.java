@@ -0,0 +1,86 @@
+package com.blackpearl.security;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token buckets keyed by an arbitrary string (an email, a remote address).
+ * <p>
+ * Each bucket holds {@code capacity} tokens refilled evenly over {@code refillPeriod}. A bucket
+ * is a single {@link AtomicLong} holding its theoretical arrival time (the GCRA formulation of a
+ * token bucket), so acquiring is one CAS with no locks or allocation. Buckets live in a fixed
+ * number of stripes; a stripe sweeps out buckets that have refilled completely, at most once per
+ * idle timeout, so memory tracks the set of recently active keys.
+ */
+public class TokenBucketLimiter {
+
+    private static final int STRIPES = 16;
+
+    private final long intervalNanos;
+    private final long periodNanos;
+    private final long idleNanos;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public TokenBucketLimiter(int capacity, Duration refillPeriod, Duration idleTimeout) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.periodNanos = refillPeriod.toNanos();
+        this.intervalNanos = Math.max(1, periodNanos / capacity);
+        this.idleNanos = Math.max(idleTimeout.toNanos(), periodNanos);
+        long now = System.nanoTime();
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(now);
+        }
+    }
+
+    /**
+     * Takes one token for the key.
+     *
+     * @return 0 if the request is admitted, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        Stripe stripe = stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+        stripe.sweepIfDue(now);
+        AtomicLong tat = stripe.buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long wait = next - now - periodNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.buckets.size();
+        }
+        return size;
+    }
+
+    private final class Stripe {
+        final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        final AtomicLong lastSweep;
+
+        Stripe(long now) {
+            this.lastSweep = new AtomicLong(now);
+        }
+
+        void sweepIfDue(long now) {
+            long last = lastSweep.get();
+            if (now - last < idleNanos || !lastSweep.compareAndSet(last, now)) {
+                return;
+            }
+            // A bucket whose arrival time has passed is full again and equivalent to a new one.
+            buckets.values().removeIf(tat -> now - tat.get() >= idleNanos);
+        }
+    }
+}
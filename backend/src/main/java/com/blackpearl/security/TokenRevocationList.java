@@ -0,0 +1,131 @@
+package com.blackpearl.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Revoked token ids (jti), checked on every authenticated request without touching the database.
+ * <p>
+ * A Bloom filter answers the common "not revoked" case with a few bit reads; only a filter hit
+ * consults the exact set, which also records each token's expiry. Entries are pruned once their
+ * token has expired, and the filter is rebuilt from the survivors because Bloom filters cannot
+ * delete.
+ */
+@Component
+@Slf4j
+public class TokenRevocationList {
+
+    private static final int HASHES = 4;
+
+    private final ConcurrentHashMap<String, Long> revoked = new ConcurrentHashMap<>();
+    private final int filterBits;
+    private volatile BloomFilter filter;
+
+    public TokenRevocationList(@Value("${jwt.revocation.filter-bits:1048576}") int filterBits) {
+        this.filterBits = filterBits;
+        this.filter = new BloomFilter(filterBits);
+    }
+
+    public synchronized void revoke(String jti, long expiresAtMillis) {
+        if (jti == null || expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        revoked.put(jti, expiresAtMillis);
+        filter.add(jti);
+    }
+
+    /**
+     * Revokes the id unless it already was.
+     *
+     * @return false if the id had already been revoked
+     */
+    public synchronized boolean revokeIfAbsent(String jti, long expiresAtMillis) {
+        if (revoked.containsKey(jti)) {
+            return false;
+        }
+        revoke(jti, expiresAtMillis);
+        return true;
+    }
+
+    public boolean isRevoked(String jti) {
+        return jti != null && filter.mightContain(jti) && revoked.containsKey(jti);
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.prune-interval-ms:300000}")
+    public synchronized void prune() {
+        long now = System.currentTimeMillis();
+        int before = revoked.size();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        if (revoked.size() == before) {
+            return;
+        }
+        BloomFilter rebuilt = new BloomFilter(filterBits);
+        revoked.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+        log.debug("Pruned {} expired revocations, {} remain", before - revoked.size(), revoked.size());
+    }
+
+    private static final class BloomFilter {
+
+        private final AtomicLongArray words;
+        private final int bits;
+
+        BloomFilter(int bits) {
+            this.bits = Math.max(64, bits);
+            this.words = new AtomicLongArray((this.bits + 63) / 64);
+        }
+
+        void add(String key) {
+            long hash = hash64(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= HASHES; i++) {
+                int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bits;
+                long mask = 1L << bit;
+                int word = bit >>> 6;
+                long current;
+                do {
+                    current = words.get(word);
+                } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String key) {
+            long hash = hash64(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= HASHES; i++) {
+                int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bits;
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // 64-bit FNV-1a followed by a murmur3 finaliser for better bit dispersion.
+        private static long hash64(String key) {
+            long h = 0xcbf29ce484222325L;
+            for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+                h ^= b;
+                h *= 0x100000001b3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb93fe53e1a49L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
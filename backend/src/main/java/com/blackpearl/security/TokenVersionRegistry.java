@@ -0,0 +1,52 @@
+package com.blackpearl.security;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory table of per-user token versions. Every issued JWT carries the user's version at
+ * signing time; bumping the version revokes all tokens issued before it. Only users whose
+ * version has been bumped occupy an entry, so the table stays small.
+ * <p>
+ * The table does not survive a restart, so tokens issued before {@link #getStartedAt()} are
+ * not trusted on their claims alone and are re-checked against the database instead.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    private final ConcurrentHashMap<Long, Integer> versions = new ConcurrentHashMap<>();
+    // Truncated to whole seconds to line up with the second-precision "iat" claim.
+    private final long startedAt = System.currentTimeMillis() / 1000 * 1000;
+
+    public int current(Long userId) {
+        return versions.getOrDefault(userId, 0);
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public void bump(Long userId) {
+        versions.merge(userId, 1, Integer::sum);
+    }
+
+    /**
+     * Bumps the version now and again once the surrounding transaction commits, so tokens
+     * signed while the change was still uncommitted are revoked as well.
+     */
+    public void bumpAfterCommit(Long userId) {
+        bump(userId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bump(userId);
+            }
+        });
+    }
+}
@@ -0,0 +1,64 @@
+package com.blackpearl.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bumps the {@link CollectionStamps} of an entity from Hibernate's post-commit events, so a
+ * stamp only moves once the change is visible to other transactions.
+ */
+@Component
+@RequiredArgsConstructor
+public class CollectionStampListener implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final CollectionStamps stamps;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        stamps.bump(event.getPersister().getMappedClass());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        stamps.bump(event.getPersister().getMappedClass());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        stamps.bump(event.getPersister().getMappedClass());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return CollectionStamps.TRACKED.contains(persister.getMappedClass());
+    }
+}
@@ -0,0 +1,107 @@
+package com.blackpearl.service;
+
+import com.blackpearl.model.*;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Change stamps per entity collection, bumped by {@link CollectionStampListener} after every
+ * committed insert, update or delete. A response built from a set of collections is unchanged
+ * for as long as their stamps are, which lets conditional GETs answer 304 without a query.
+ * <p>
+ * Stamps are kept in memory and prefixed with the instance's start time, so a restart
+ * invalidates every tag handed out before it. Like the dashboard counters they only see
+ * changes made through JPA on this instance.
+ * <p>
+ * Collections in {@link #PER_USER} hold one user's rows, such as what they have read: they are
+ * also stamped per user, and a tag sees only its caller's stamp of them.
+ */
+@Component
+public class CollectionStamps {
+
+    static final Set<Class<?>> TRACKED = Set.of(User.class, Inventory.class, Notification.class,
+            Payment.class, ShipOrder.class, ShipRepair.class, StockExport.class, Tender.class);
+
+    static final Set<Class<?>> PER_USER = Set.of(NotificationReadState.class);
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    /** Keyed by collection, or by {@link UserStamp} for a user's share of one. */
+    private final Map<Object, AtomicLong> stamps = new ConcurrentHashMap<>();
+
+    void bump(Class<?> entity) {
+        increment(entity);
+    }
+
+    /** Bumps the user's stamp of a {@link #PER_USER} collection. */
+    void bump(Class<?> collection, Long userId) {
+        increment(new UserStamp(collection, userId));
+    }
+
+    /**
+     * For changes made with SQL statements, which the entity listener does not see: bumps the
+     * stamp once the current transaction commits.
+     */
+    public void bumpAfterCommit(Class<?> collection) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(collection);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bump(collection);
+            }
+        });
+    }
+
+    /** The same for one user's rows of a {@link #PER_USER} collection. */
+    public void bumpAfterCommit(Class<?> collection, Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(collection, userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bump(collection, userId);
+            }
+        });
+    }
+
+    public long get(Class<?> entity) {
+        return get((Object) entity);
+    }
+
+    /**
+     * Combined stamp of the given collections as seen by {@code callerId}. Stamps only grow, so
+     * their sum changes whenever any one of them does.
+     */
+    public String tag(Long callerId, Class<?>... collections) {
+        long sum = 0;
+        for (Class<?> collection : collections) {
+            sum += get(collection);
+            if (callerId != null && PER_USER.contains(collection)) {
+                sum += get(new UserStamp(collection, callerId));
+            }
+        }
+        return epoch + "." + Long.toString(sum, 36);
+    }
+
+    private void increment(Object key) {
+        stamps.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    private long get(Object key) {
+        AtomicLong stamp = stamps.get(key);
+        return stamp != null ? stamp.get() : 0L;
+    }
+
+    private record UserStamp(Class<?> collection, Long userId) {
+    }
+}
@@ -0,0 +1,85 @@
+package com.blackpearl.service;
+
+import com.blackpearl.security.SecurityUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * ETag handling for GET endpoints whose responses are read from known entity collections. The
+ * tag combines the {@link CollectionStamps} of those collections with a digest of the caller,
+ * the path, the query parameters and {@code Accept}, so it is computed before, and instead of,
+ * the query: a matching {@code If-None-Match} is answered with 304 without touching the database.
+ * <p>
+ * Responses are marked {@code private, no-cache}: browsers keep them but revalidate each time.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConditionalGet {
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private final CollectionStamps stamps;
+
+    public <T> ResponseEntity<T> respond(WebRequest request, Supplier<ResponseEntity<T>> handler,
+            Class<?>... collections) {
+        String etag = "\"" + stamps.tag(SecurityUtils.getCurrentUserId(), collections) + "." + variant(request) + "\"";
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE)
+                    .varyBy(HttpHeaders.ACCEPT).build();
+        }
+        ResponseEntity<T> response = handler.get();
+        return ResponseEntity.status(response.getStatusCode()).headers(response.getHeaders())
+                .eTag(etag).cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT).body(response.getBody());
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            // GET uses weak comparison; compressed responses may have had their tag weakened.
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Digest of everything besides the stamps that selects the response: caller, path,
+     * parameters and the negotiated format.
+     */
+    private static String variant(WebRequest request) {
+        StringBuilder key = new StringBuilder()
+                .append(SecurityUtils.getCurrentUserId()).append('|')
+                .append(SecurityUtils.getCurrentRole()).append('|')
+                .append(request.getDescription(false)).append('|')
+                .append(request.getHeader(HttpHeaders.ACCEPT));
+        Map<String, String[]> parameters = new TreeMap<>(request.getParameterMap());
+        parameters.forEach((name, values) -> key.append('|').append(name).append('=').append(Arrays.toString(values)));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.blackpearl.service;
+
+import com.blackpearl.model.Tender;
+import com.blackpearl.model.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Feeds {@link DashboardCounters} from Hibernate's post-commit entity events, so rolled-back
+ * changes never reach the counters. An update moves the entity between the cells of its old
+ * and new state. The new values of changed cells are pushed to the dashboard streams.
+ */
+@Component
+@RequiredArgsConstructor
+public class DashboardCounterListener implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private static final String OPEN_TENDERS = DashboardCounters.statusKey(Tender.class, Tender.Status.OPEN);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final DashboardCounters counters;
+    private final DashboardStreamService dashboardStream;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        List<String> keys = keys(event.getPersister(), event.getState());
+        keys.forEach(key -> counters.add(key, 1));
+        publish(keys);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        List<String> keys = keys(event.getPersister(), event.getDeletedState());
+        keys.forEach(key -> counters.add(key, -1));
+        publish(keys);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        // Without the loaded state the move cannot be computed; reconciliation will repair it.
+        if (event.getOldState() == null) {
+            return;
+        }
+        List<String> before = keys(event.getPersister(), event.getOldState());
+        List<String> after = keys(event.getPersister(), event.getState());
+        List<String> changed = new ArrayList<>();
+        before.stream().filter(key -> !after.contains(key)).forEach(key -> {
+            counters.add(key, -1);
+            changed.add(key);
+        });
+        after.stream().filter(key -> !before.contains(key)).forEach(key -> {
+            counters.add(key, 1);
+            changed.add(key);
+        });
+        publish(changed);
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return DashboardCounters.DIMENSIONS.containsKey(persister.getMappedClass());
+    }
+
+    /**
+     * Pushes the new values of the changed cells: per-user cells to that user and admins, the
+     * open tender count to everyone, everything else to admins.
+     */
+    private void publish(List<String> changed) {
+        Map<String, Object> forAdmins = new HashMap<>();
+        Map<Long, Map<String, Object>> forOwners = new HashMap<>();
+        for (String key : changed) {
+            long value = counters.get(key);
+            int user = key.indexOf(".user.");
+            if (user >= 0) {
+                Long userId = Long.valueOf(key.substring(user + ".user.".length()));
+                forOwners.computeIfAbsent(userId, id -> new HashMap<>()).put(key, value);
+            } else if (key.equals(OPEN_TENDERS)) {
+                dashboardStream.publish(DashboardEvent.toEveryone("counters", Map.of(key, value)));
+            } else {
+                forAdmins.put(key, value);
+            }
+        }
+        if (!forAdmins.isEmpty()) {
+            dashboardStream.publish(DashboardEvent.toAdmins("counters", forAdmins));
+        }
+        forOwners.forEach((userId, values) ->
+                dashboardStream.publish(DashboardEvent.toOwner(userId, "counters", values)));
+    }
+
+    private List<String> keys(EntityPersister persister, Object[] state) {
+        Class<?> entity = persister.getMappedClass();
+        List<String> dimensions = DashboardCounters.DIMENSIONS.get(entity);
+        if (dimensions == null || state == null) {
+            return List.of();
+        }
+        List<String> keys = new ArrayList<>(3);
+        keys.add(DashboardCounters.totalKey(entity));
+        String[] properties = persister.getPropertyNames();
+        for (int i = 0; i < properties.length; i++) {
+            if (!dimensions.contains(properties[i]) || state[i] == null) {
+                continue;
+            }
+            if (state[i] instanceof Enum<?> status) {
+                keys.add(DashboardCounters.statusKey(entity, status));
+            } else if (state[i] instanceof User user) {
+                keys.add(DashboardCounters.userKey(entity, user.getId()));
+            }
+        }
+        return keys;
+    }
+}
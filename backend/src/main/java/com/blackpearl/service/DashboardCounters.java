@@ -0,0 +1,204 @@
+package com.blackpearl.service;
+
+import com.blackpearl.model.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory dashboard counters: a total per entity, plus per-status and per-user counts for the
+ * entities that have those attributes. Keys look like {@code ShipOrder.total},
+ * {@code ShipOrder.status.PENDING} and {@code ShipOrder.user.42}.
+ * <p>
+ * Cells are applied from committed entity changes by {@link DashboardCounterListener}, rebuilt
+ * from the database once the application is ready, and reconciled periodically. Bulk JPQL
+ * statements and database-side cascades bypass the entity events; reconciliation corrects the
+ * drift they cause.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardCounters {
+
+    /** Tracked entities and the attributes each one is counted by. */
+    static final Map<Class<?>, List<String>> DIMENSIONS = Map.of(
+            User.class, List.of(),
+            Inventory.class, List.of(),
+            ShipOrder.class, List.of("status", "user"),
+            ShipRepair.class, List.of("status", "user"),
+            StockExport.class, List.of("status", "user"),
+            Tender.class, List.of("status"));
+
+    private static final int MAX_REBUILD_ATTEMPTS = 3;
+
+    private final ConcurrentHashMap<String, LongAdder> cells = new ConcurrentHashMap<>();
+    // Incremented on every applied change, so a recount can tell whether writes raced with it.
+    private final AtomicLong changeSeq = new AtomicLong();
+    private volatile boolean ready;
+
+    private final FanOutExecutor fanOut;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long get(String key) {
+        LongAdder cell = cells.get(key);
+        return cell != null ? cell.sum() : 0L;
+    }
+
+    void add(String key, long delta) {
+        cells.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+        changeSeq.incrementAndGet();
+    }
+
+    public static String totalKey(Class<?> entity) {
+        return entity.getSimpleName() + ".total";
+    }
+
+    public static String statusKey(Class<?> entity, Enum<?> status) {
+        return entity.getSimpleName() + ".status." + status.name();
+    }
+
+    public static String userKey(Class<?> entity, Long userId) {
+        return entity.getSimpleName() + ".user." + userId;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        for (int attempt = 1; attempt <= MAX_REBUILD_ATTEMPTS; attempt++) {
+            long seq = changeSeq.get();
+            Map<String, Long> actual;
+            try {
+                actual = countFromDatabase();
+            } catch (IllegalStateException e) {
+                // Dashboards keep querying the database until a reconciliation succeeds.
+                log.warn("Dashboard counter rebuild failed: {}", e.getMessage());
+                return;
+            }
+            // Writes committed during the recount may or may not be in it; retry for a quiet window.
+            if (changeSeq.get() == seq || attempt == MAX_REBUILD_ATTEMPTS) {
+                replaceAll(actual);
+                ready = true;
+                log.info("Dashboard counters rebuilt: {} cells", cells.size());
+                return;
+            }
+        }
+    }
+
+    @Scheduled(initialDelayString = "${dashboard.counters.reconcile-interval-ms:600000}",
+            fixedDelayString = "${dashboard.counters.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        long seq = changeSeq.get();
+        Map<String, Long> actual = countFromDatabase();
+        if (changeSeq.get() != seq) {
+            log.debug("Skipping counter reconciliation, writes raced with the recount");
+            return;
+        }
+        List<Map<String, Object>> mismatches = compare(actual);
+        if (!mismatches.isEmpty()) {
+            log.warn("Dashboard counters drifted on {} cells, repairing", mismatches.size());
+            replaceAll(actual);
+        }
+        ready = true;
+    }
+
+    /**
+     * Compares every cell with a fresh count from the database without repairing anything.
+     */
+    public Map<String, Object> checkConsistency() {
+        long seq = changeSeq.get();
+        Map<String, Long> actual = countFromDatabase();
+        List<Map<String, Object>> mismatches = compare(actual);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("ready", ready);
+        result.put("cells", cells.size());
+        result.put("consistent", mismatches.isEmpty());
+        result.put("concurrentWrites", changeSeq.get() != seq);
+        result.put("mismatches", mismatches);
+        return result;
+    }
+
+    private List<Map<String, Object>> compare(Map<String, Long> actual) {
+        Set<String> keys = new TreeSet<>(actual.keySet());
+        keys.addAll(cells.keySet());
+        List<Map<String, Object>> mismatches = new ArrayList<>();
+        for (String key : keys) {
+            long expected = actual.getOrDefault(key, 0L);
+            long counted = get(key);
+            if (expected != counted) {
+                mismatches.add(Map.of("key", key, "counter", counted, "actual", expected));
+            }
+        }
+        return mismatches;
+    }
+
+    private void replaceAll(Map<String, Long> actual) {
+        cells.keySet().retainAll(actual.keySet());
+        actual.forEach((key, value) -> {
+            LongAdder cell = cells.computeIfAbsent(key, k -> new LongAdder());
+            cell.add(value - cell.sum());
+        });
+    }
+
+    /**
+     * Counts every cell, one fan-out branch per entity.
+     *
+     * @throws IllegalStateException if any branch failed, so a partial count is never applied
+     */
+    private Map<String, Long> countFromDatabase() {
+        FanOutExecutor.Scope scope = fanOut.scope();
+        List<CompletableFuture<Map<String, Long>>> branches = new ArrayList<>();
+        DIMENSIONS.forEach((entity, dimensions) ->
+                branches.add(scope.fork(entity.getSimpleName(), () -> countEntity(entity, dimensions), Map.of())));
+
+        Map<String, Long> counts = new HashMap<>();
+        branches.forEach(branch -> counts.putAll(branch.join()));
+        if (!scope.degraded().isEmpty()) {
+            throw new IllegalStateException("Counting failed for " + scope.degraded());
+        }
+        return counts;
+    }
+
+    private Map<String, Long> countEntity(Class<?> entity, List<String> dimensions) {
+        Map<String, Long> counts = new HashMap<>();
+        String name = entity.getSimpleName();
+        counts.put(totalKey(entity), entityManager
+                .createQuery("SELECT COUNT(e) FROM " + name + " e", Long.class)
+                .getSingleResult());
+        if (dimensions.contains("status")) {
+            for (Object[] row : entityManager.createQuery(
+                    "SELECT e.status, COUNT(e) FROM " + name + " e GROUP BY e.status", Object[].class)
+                    .getResultList()) {
+                if (row[0] != null) {
+                    counts.put(statusKey(entity, (Enum<?>) row[0]), (Long) row[1]);
+                }
+            }
+        }
+        if (dimensions.contains("user")) {
+            for (Object[] row : entityManager.createQuery(
+                    "SELECT e.user.id, COUNT(e) FROM " + name + " e GROUP BY e.user.id", Object[].class)
+                    .getResultList()) {
+                if (row[0] != null) {
+                    counts.put(userKey(entity, (Long) row[0]), (Long) row[1]);
+                }
+            }
+        }
+        return counts;
+    }
+}
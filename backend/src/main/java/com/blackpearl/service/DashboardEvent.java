@@ -0,0 +1,37 @@
+package com.blackpearl.service;
+
+import java.util.Map;
+
+/**
+ * Small delta pushed to dashboard streams. {@code userId} names the user the event concerns;
+ * {@code admins} adds every admin stream and {@code everyone} every stream.
+ */
+public record DashboardEvent(String type, Map<String, Object> data, Long userId, boolean admins, boolean everyone) {
+
+    public static DashboardEvent toEveryone(String type, Map<String, Object> data) {
+        return new DashboardEvent(type, data, null, true, true);
+    }
+
+    public static DashboardEvent toAdmins(String type, Map<String, Object> data) {
+        return new DashboardEvent(type, data, null, true, false);
+    }
+
+    /** To the owning user and to admins. */
+    public static DashboardEvent toOwner(Long userId, String type, Map<String, Object> data) {
+        return new DashboardEvent(type, data, userId, true, false);
+    }
+
+    /** To the given user only. */
+    public static DashboardEvent toUser(Long userId, String type, Map<String, Object> data) {
+        return new DashboardEvent(type, data, userId, false, false);
+    }
+
+    /** A status transition of one of the owner's records, e.g. an order being approved. */
+    public static DashboardEvent statusChanged(String entity, Long id, Long ownerId, Enum<?> status) {
+        return toOwner(ownerId, "status", Map.of("entity", entity, "id", id, "status", status.name()));
+    }
+
+    boolean isFor(Long subscriberId, boolean admin) {
+        return everyone || (admins && admin) || (userId != null && userId.equals(subscriberId));
+    }
+}
@@ -1,17 +1,16 @@
 package com.blackpearl.service;
 
-import com.blackpearl.exception.ResourceNotFoundException;
-import com.blackpearl.model.ShipOrder;
-import com.blackpearl.model.Tender;
-import com.blackpearl.model.User;
+import com.blackpearl.model.*;
 import com.blackpearl.repository.*;
+import com.blackpearl.security.CurrentUserResolver;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -23,33 +22,34 @@ public class DashboardService {
     private final TenderRepository tenderRepository;
     private final StockExportRepository stockExportRepository;
     private final InventoryRepository inventoryRepository;
-    private final PaymentRepository paymentRepository;
+    private final PaymentRevenueRollupService revenueRollup;
+    private final CurrentUserResolver currentUser;
+    private final DashboardCounters counters;
+    private final DashboardSnapshotCache snapshots;
+    private final FanOutExecutor fanOut;
 
     public Map<String, Object> getUserStats(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + email));
-        Long uid = user.getId();
-
-        return Map.of(
-                "shipOrders", shipOrderRepository.findByUserId(uid).size(),
-                "repairs", shipRepairRepository.findByUserId(uid).size(),
-                "tenders", tenderRepository.findByStatus(Tender.Status.OPEN).size(),
-                "stockExports", stockExportRepository.findByUserId(uid).size());
+        Long uid = currentUser.resolveUserId(email);
+        FanOutExecutor.Scope scope = fanOut.scope();
+
+        CompletableFuture<Long> shipOrders = count(scope, DashboardCounters.userKey(ShipOrder.class, uid),
+                () -> shipOrderRepository.countByUserId(uid));
+        CompletableFuture<Long> repairs = count(scope, DashboardCounters.userKey(ShipRepair.class, uid),
+                () -> shipRepairRepository.countByUserId(uid));
+        CompletableFuture<Long> tenders = openTenders(scope);
+        CompletableFuture<Long> stockExports = count(scope, DashboardCounters.userKey(StockExport.class, uid),
+                () -> stockExportRepository.countByUserId(uid));
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("shipOrders", shipOrders.join());
+        stats.put("repairs", repairs.join());
+        stats.put("tenders", tenders.join());
+        stats.put("stockExports", stockExports.join());
+        return withDegraded(stats, scope);
     }
 
     public Map<String, Object> getAdminStats() {
-        YearMonth current = YearMonth.now();
-        LocalDateTime start = current.atDay(1).atStartOfDay();
-        LocalDateTime end = current.atEndOfMonth().atTime(23, 59, 59);
-        BigDecimal monthRevenue = paymentRepository.sumCompletedPaymentsBetween(start, end);
-        if (monthRevenue == null) monthRevenue = BigDecimal.ZERO;
-
-        return Map.of(
-                "totalUsers", userRepository.count(),
-                "totalOrders", shipOrderRepository.count(),
-                "activeTenders", tenderRepository.findByStatus(Tender.Status.OPEN).size(),
-                "totalInventory", inventoryRepository.count(),
-                "monthRevenue", monthRevenue);
+        return snapshots.get("admin", this::computeAdminStats);
     }
 
     /**
@@ -57,40 +57,124 @@ public class DashboardService {
      * revenueByMonth (last 6 months), ordersByStatus (for donut chart).
      */
     public Map<String, Object> getDashboardSummary() {
-        long totalUsers = userRepository.count();
-        long totalOrders = shipOrderRepository.count();
-        long activeTenders = tenderRepository.findByStatus(Tender.Status.OPEN).size();
+        return snapshots.get("summary", this::computeDashboardSummary);
+    }
+
+    public Map<String, Object> getSnapshotStats() {
+        return snapshots.stats();
+    }
+
+    private Map<String, Object> computeAdminStats() {
+        FanOutExecutor.Scope scope = fanOut.scope();
+
+        CompletableFuture<Long> totalUsers = count(scope, DashboardCounters.totalKey(User.class), userRepository::count);
+        CompletableFuture<Long> totalOrders = count(scope, DashboardCounters.totalKey(ShipOrder.class),
+                shipOrderRepository::count);
+        CompletableFuture<Long> activeTenders = openTenders(scope);
+        CompletableFuture<Long> totalInventory = count(scope, DashboardCounters.totalKey(Inventory.class),
+                inventoryRepository::count);
+        CompletableFuture<BigDecimal> monthRevenue = scope.fork("monthRevenue",
+                () -> revenueRollup.revenueForMonth(YearMonth.now()), BigDecimal.ZERO);
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalUsers", totalUsers.join());
+        stats.put("totalOrders", totalOrders.join());
+        stats.put("activeTenders", activeTenders.join());
+        stats.put("totalInventory", totalInventory.join());
+        stats.put("monthRevenue", monthRevenue.join());
+        return withDegraded(stats, scope);
+    }
+
+    private Map<String, Object> computeDashboardSummary() {
+        FanOutExecutor.Scope scope = fanOut.scope();
+        YearMonth first = YearMonth.now().minusMonths(5);
+
+        CompletableFuture<Long> totalUsers = count(scope, DashboardCounters.totalKey(User.class), userRepository::count);
+        CompletableFuture<Long> totalOrders = count(scope, DashboardCounters.totalKey(ShipOrder.class),
+                shipOrderRepository::count);
+        CompletableFuture<Long> activeTenders = openTenders(scope);
+        CompletableFuture<BigDecimal> totalRevenue = scope.fork("totalRevenue",
+                revenueRollup::totalRevenue, BigDecimal.ZERO);
+        // Revenue by month of completion (last 6 months), read from the rollup
+        CompletableFuture<List<MonthlyRevenue>> revenueRows = scope.fork("revenueByMonth",
+                () -> revenueRollup.revenueByMonth(first, 6), List.of());
+        // Orders by status (for donut chart)
+        CompletableFuture<Map<String, Long>> ordersByStatus = counters.isReady()
+                ? CompletableFuture.completedFuture(ordersByStatusFromCounters())
+                : scope.fork("ordersByStatus", this::ordersByStatusFromDatabase, Map.of());
 
-        BigDecimal totalRevenue = paymentRepository.sumTotalCompletedPayments();
-        if (totalRevenue == null) totalRevenue = BigDecimal.ZERO;
+        Map<YearMonth, BigDecimal> revenueByYearMonth = new HashMap<>();
+        for (MonthlyRevenue row : revenueRows.join()) {
+            revenueByYearMonth.put(YearMonth.of(row.getRevenueYear(), row.getRevenueMonth()), row.getRevenue());
+        }
 
-        // Revenue by month (last 6 months)
         List<Map<String, Object>> revenueByMonth = new ArrayList<>();
         String[] monthNames = {"Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
-        for (int i = 5; i >= 0; i--) {
-            YearMonth ym = YearMonth.now().minusMonths(i);
-            BigDecimal rev = paymentRepository.sumCompletedPaymentsBetween(
-                    ym.atDay(1).atStartOfDay(),
-                    ym.atEndOfMonth().atTime(23, 59, 59));
-            if (rev == null) rev = BigDecimal.ZERO;
+        for (int i = 0; i < 6; i++) {
+            YearMonth ym = first.plusMonths(i);
+            BigDecimal rev = revenueByYearMonth.getOrDefault(ym, BigDecimal.ZERO);
             revenueByMonth.add(Map.of(
                     "month", monthNames[ym.getMonthValue() - 1],
                     "year", ym.getYear(),
                     "revenue", rev.doubleValue()));
         }
 
-        // Orders by status (for donut chart)
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("totalUsers", totalUsers.join());
+        summary.put("totalOrders", totalOrders.join());
+        summary.put("activeTenders", activeTenders.join());
+        summary.put("totalRevenue", totalRevenue.join().doubleValue());
+        summary.put("revenueByMonth", revenueByMonth);
+        summary.put("ordersByStatus", ordersByStatus.join());
+        return withDegraded(summary, scope);
+    }
+
+    private Map<String, Long> ordersByStatusFromCounters() {
         Map<String, Long> ordersByStatus = new LinkedHashMap<>();
         for (ShipOrder.Status s : ShipOrder.Status.values()) {
-            ordersByStatus.put(s.name(), (long) shipOrderRepository.findByStatus(s).size());
+            ordersByStatus.put(s.name(), counters.get(DashboardCounters.statusKey(ShipOrder.class, s)));
         }
+        return ordersByStatus;
+    }
+
+    private Map<String, Long> ordersByStatusFromDatabase() {
+        Map<String, Long> ordersByStatus = new LinkedHashMap<>();
+        for (ShipOrder.Status s : ShipOrder.Status.values()) {
+            ordersByStatus.put(s.name(), 0L);
+        }
+        for (StatusCount<ShipOrder.Status> row : shipOrderRepository.countGroupByStatus()) {
+            if (row.getStatus() != null) {
+                ordersByStatus.put(row.getStatus().name(), row.getTotal());
+            }
+        }
+        return ordersByStatus;
+    }
+
+    public Map<String, Object> getCounterConsistency() {
+        return counters.checkConsistency();
+    }
+
+    private CompletableFuture<Long> openTenders(FanOutExecutor.Scope scope) {
+        return count(scope, DashboardCounters.statusKey(Tender.class, Tender.Status.OPEN),
+                () -> tenderRepository.countByStatus(Tender.Status.OPEN));
+    }
+
+    /**
+     * Reads a counter, or until the counters have been built, forks a database count named
+     * after the counter key.
+     */
+    private CompletableFuture<Long> count(FanOutExecutor.Scope scope, String key, Supplier<Long> fallback) {
+        return counters.isReady()
+                ? CompletableFuture.completedFuture(counters.get(key))
+                : scope.fork(key, fallback, 0L);
+    }
 
-        return Map.of(
-                "totalUsers", totalUsers,
-                "totalOrders", totalOrders,
-                "activeTenders", activeTenders,
-                "totalRevenue", totalRevenue.doubleValue(),
-                "revenueByMonth", revenueByMonth,
-                "ordersByStatus", ordersByStatus);
+    /** Lists the branches that fell back, so clients can tell a partial result from a real zero. */
+    private Map<String, Object> withDegraded(Map<String, Object> result, FanOutExecutor.Scope scope) {
+        Set<String> degraded = scope.degraded();
+        if (!degraded.isEmpty()) {
+            result.put("degraded", degraded);
+        }
+        return result;
     }
 }
@@ -0,0 +1,181 @@
+package com.blackpearl.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Stale-while-revalidate cache for the admin dashboard payloads, which are identical for every
+ * admin. A snapshot younger than the freshness window is served as is. An older one, or one
+ * whose data was invalidated by a write, is still served immediately while a single background
+ * refresh recomputes it. Only the very first request for a key waits for the computation.
+ */
+@Component
+@Slf4j
+public class DashboardSnapshotCache {
+
+    private record Snapshot(Map<String, Object> value, long computedAt, long generation) {
+    }
+
+    private static final class Entry {
+        volatile Snapshot snapshot;
+        volatile Supplier<Map<String, Object>> loader;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+    }
+
+    @Value("${dashboard.snapshot.fresh-for-ms:30000}")
+    private long freshForMs;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private ExecutorService refresher;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+    private final LongAdder refreshNanos = new LongAdder();
+    private final AtomicLong maxRefreshNanos = new AtomicLong();
+    private volatile long lastRefreshNanos;
+
+    @PostConstruct
+    void init() {
+        refresher = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "dashboard-snapshot-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    public Map<String, Object> get(String key, Supplier<Map<String, Object>> loader) {
+        Entry entry = entries.computeIfAbsent(key, k -> new Entry());
+        entry.loader = loader;
+        Snapshot snapshot = entry.snapshot;
+
+        if (snapshot == null) {
+            synchronized (entry) {
+                snapshot = entry.snapshot;
+                if (snapshot == null) {
+                    misses.increment();
+                    snapshot = compute(loader);
+                    entry.snapshot = snapshot;
+                    return snapshot.value();
+                }
+            }
+        }
+
+        boolean fresh = snapshot.generation() == generation.get()
+                && System.currentTimeMillis() - snapshot.computedAt() < freshForMs;
+        if (fresh) {
+            hits.increment();
+        } else {
+            staleHits.increment();
+            refreshInBackground(entry, loader);
+        }
+        return snapshot.value();
+    }
+
+    /**
+     * Marks every snapshot stale and starts recomputing them, so clients reloading right after
+     * a change (for example on a pushed dashboard event) are likely to find a current snapshot.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        entries.values().forEach(entry -> {
+            if (entry.loader != null && entry.snapshot != null) {
+                refreshInBackground(entry, entry.loader);
+            }
+        });
+    }
+
+    /**
+     * Invalidates once the surrounding transaction commits, so a refresh cannot pick up the
+     * pre-commit state and be taken for current.
+     */
+    public void invalidateAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate();
+            }
+        });
+    }
+
+    private void refreshInBackground(Entry entry, Supplier<Map<String, Object>> loader) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    entry.snapshot = compute(loader);
+                } catch (RuntimeException e) {
+                    refreshFailures.increment();
+                    log.warn("Dashboard snapshot refresh failed, keeping the previous snapshot", e);
+                } finally {
+                    entry.refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            entry.refreshing.set(false);
+        }
+    }
+
+    private Snapshot compute(Supplier<Map<String, Object>> loader) {
+        // Read the generation first: a write committing during the computation leaves it stale.
+        long gen = generation.get();
+        long start = System.nanoTime();
+        Map<String, Object> value = loader.get();
+        long elapsed = System.nanoTime() - start;
+
+        refreshes.increment();
+        refreshNanos.add(elapsed);
+        maxRefreshNanos.accumulateAndGet(elapsed, Math::max);
+        lastRefreshNanos = elapsed;
+        return new Snapshot(value, System.currentTimeMillis(), gen);
+    }
+
+    public Map<String, Object> stats() {
+        long fresh = hits.sum();
+        long stale = staleHits.sum();
+        long missed = misses.sum();
+        long total = fresh + stale + missed;
+        long refreshed = refreshes.sum();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("freshForMs", freshForMs);
+        stats.put("hits", fresh);
+        stats.put("staleHits", stale);
+        stats.put("misses", missed);
+        stats.put("hitRate", total > 0 ? (double) (fresh + stale) / total : 0.0);
+        stats.put("missRate", total > 0 ? (double) missed / total : 0.0);
+        stats.put("refreshes", refreshed);
+        stats.put("refreshFailures", refreshFailures.sum());
+        stats.put("avgRefreshMs", refreshed > 0 ? refreshNanos.sum() / refreshed / 1_000_000.0 : 0.0);
+        stats.put("maxRefreshMs", maxRefreshNanos.get() / 1_000_000.0);
+        stats.put("lastRefreshMs", lastRefreshNanos / 1_000_000.0);
+        return stats;
+    }
+}
@@ -0,0 +1,393 @@
+package com.blackpearl.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Server-Sent Events fan-out for the dashboards. Publishers only enqueue: every connection has
+ * its own bounded queue drained by a dispatcher pool, so one slow browser cannot hold up the
+ * request thread or other connections. A connection whose queue overflows, or whose write
+ * stalls, is dropped; the client reconnects and reloads its view once.
+ * <p>
+ * Streams are written with non-blocking servlet output once their request has gone async
+ * ({@link #startNonBlockingWrites}): a write never waits for the socket, so no dispatcher thread
+ * can be held by a dead connection. Frames are rendered to bytes once, when published, and each
+ * is a single write; the emitter only carries the async request. While the socket cannot take
+ * more, a stream's frames stay in its queue; it is resumed when the container reports it
+ * writable, and dropped once it has not been for {@code stall-timeout-ms}.
+ * <p>
+ * Notification events carry ids and are kept in {@link NotificationRingBuffers}: a client
+ * reconnecting with {@code Last-Event-ID} is sent what it missed and told it has resumed, so it
+ * need not reload its notifications.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class DashboardStreamService {
+
+    private static final String SUBSCRIBER_ATTRIBUTE = DashboardStreamService.class.getName() + ".subscriber";
+
+    @Value("${dashboard.stream.max-connections:1000}")
+    private int maxConnections;
+
+    @Value("${dashboard.stream.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${dashboard.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${dashboard.stream.stall-timeout-ms:30000}")
+    private long stallTimeoutMs;
+
+    @Value("${dashboard.stream.dispatch-threads:2}")
+    private int dispatchThreads;
+
+    private final NotificationRingBuffers notificationBuffers;
+    private final ObjectMapper objectMapper;
+
+    private final ConcurrentHashMap<Long, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private ThreadPoolExecutor dispatcher;
+    private byte[] ping;
+
+    @PostConstruct
+    void init() {
+        ping = render(SseEmitter.event().comment("ping"));
+        AtomicInteger seq = new AtomicInteger();
+        dispatcher = new ThreadPoolExecutor(dispatchThreads, dispatchThreads,
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, "dashboard-stream-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.values().forEach(this::close);
+        dispatcher.shutdownNow();
+    }
+
+    /**
+     * Opens a stream for the user, replaying the notifications published after
+     * {@code lastEventId} if they are still buffered.
+     *
+     * @throws RejectedExecutionException if the connection limit has been reached
+     */
+    public SseEmitter subscribe(HttpServletRequest request, Long userId, boolean admin, String lastEventId) {
+        if (subscribers.size() >= maxConnections) {
+            throw new RejectedExecutionException("Too many dashboard streams");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(ids.incrementAndGet(), userId, admin, emitter, queueCapacity);
+        // Nothing is written until the request has gone async; the heartbeat drops it if it never does.
+        subscriber.stalledSince = System.currentTimeMillis();
+        request.setAttribute(SUBSCRIBER_ATTRIBUTE, subscriber.id);
+        emitter.onCompletion(() -> subscribers.remove(subscriber.id));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(e -> close(subscriber));
+
+        // Registered under the buffers' lock, so no notification falls between replay and live events.
+        synchronized (notificationBuffers) {
+            Optional<List<byte[]>> missed = notificationBuffers
+                    .since(userId, lastEventId)
+                    .filter(frames -> frames.size() < queueCapacity);
+            subscribers.put(subscriber.id, subscriber);
+            // Tells the client it is (re)connected and should reload what was not resumed.
+            enqueue(subscriber, render(SseEmitter.event().id(notificationBuffers.latestEventId()).name("hello")
+                    .data(Map.of("admin", admin, "resumed", missed.isPresent()), MediaType.APPLICATION_JSON)));
+            missed.ifPresent(frames -> {
+                replayed.add(frames.size());
+                frames.forEach(frame -> enqueue(subscriber, frame));
+            });
+        }
+        return emitter;
+    }
+
+    /**
+     * Starts writing the stream opened by this request, in non-blocking mode. Called on the
+     * request thread once the request has gone async; the container then calls
+     * {@code onWritePossible}, which drains what has been queued so far.
+     */
+    public void startNonBlockingWrites(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Object id = request.getAttribute(SUBSCRIBER_ATTRIBUTE);
+        Subscriber subscriber = id != null ? subscribers.get((Long) id) : null;
+        if (subscriber == null || !request.isAsyncStarted()) {
+            return;
+        }
+        ServletOutputStream out = response.getOutputStream();
+        out.setWriteListener(new WriteListener() {
+            @Override
+            public void onWritePossible() {
+                subscriber.out = out;
+                subscriber.stalledSince = 0;
+                scheduleDrain(subscriber);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                close(subscriber);
+            }
+        });
+    }
+
+    public void publish(DashboardEvent event) {
+        published.increment();
+        byte[] frame = null;
+        for (Subscriber subscriber : subscribers.values()) {
+            if (!event.isFor(subscriber.userId, subscriber.admin)) {
+                continue;
+            }
+            // Built once, on the first recipient, and shared by every queue it is offered to.
+            if (frame == null) {
+                frame = render(SseEmitter.event()
+                        .name(event.type())
+                        .data(event.data(), MediaType.APPLICATION_JSON));
+            }
+            enqueue(subscriber, frame);
+        }
+    }
+
+    /**
+     * Publishes a notification to its recipient, or to every stream if {@code userId} is null,
+     * once the surrounding transaction commits. The frame is built once and kept for replay.
+     */
+    public void publishNotificationAfterCommit(long notificationId, Long userId, Map<String, Object> data) {
+        afterCommit(() -> {
+            DashboardEvent event = userId != null
+                    ? DashboardEvent.toUser(userId, "notification", data)
+                    : DashboardEvent.toEveryone("notification", data);
+            published.increment();
+            synchronized (notificationBuffers) {
+                long seq = notificationBuffers.next();
+                byte[] frame = render(SseEmitter.event()
+                        .id(notificationBuffers.eventId(seq))
+                        .name(event.type())
+                        .data(event.data(), MediaType.APPLICATION_JSON));
+                notificationBuffers.add(seq, notificationId, userId, frame);
+                for (Subscriber subscriber : subscribers.values()) {
+                    if (event.isFor(subscriber.userId, subscriber.admin)) {
+                        enqueue(subscriber, frame);
+                    }
+                }
+            }
+        });
+    }
+
+    /** Stops replaying a notification once its deletion commits. */
+    public void forgetNotificationAfterCommit(long notificationId) {
+        afterCommit(() -> {
+            synchronized (notificationBuffers) {
+                notificationBuffers.remove(notificationId);
+            }
+        });
+    }
+
+    /** Publishes once the surrounding transaction commits, and not at all if it rolls back. */
+    public void publishAfterCommit(DashboardEvent event) {
+        afterCommit(() -> publish(event));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @Scheduled(fixedRateString = "${dashboard.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers.values()) {
+            long stalledSince = subscriber.stalledSince;
+            if (stalledSince > 0 && now - stalledSince > stallTimeoutMs) {
+                log.debug("Dropping dashboard stream {}: write stalled", subscriber.id);
+                drop(subscriber);
+                continue;
+            }
+            enqueue(subscriber, ping);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("connections", subscribers.size());
+        stats.put("maxConnections", maxConnections);
+        stats.put("published", published.sum());
+        stats.put("droppedSlowConsumers", dropped.sum());
+        stats.put("dispatchThreads", dispatcher.getPoolSize());
+        stats.put("busyDispatchThreads", dispatcher.getActiveCount());
+        stats.put("stalledConnections", subscribers.values().stream().filter(sub -> sub.stalledSince > 0).count());
+        stats.put("replayedNotifications", replayed.sum());
+        return stats;
+    }
+
+    /** The event as written to the stream: its text parts as they are, its data as JSON. */
+    private byte[] render(SseEmitter.SseEventBuilder event) {
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        for (ResponseBodyEmitter.DataWithMediaType part : event.build()) {
+            try {
+                frame.writeBytes(part.getData() instanceof String text
+                        ? text.getBytes(StandardCharsets.UTF_8)
+                        : objectMapper.writeValueAsBytes(part.getData()));
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Dashboard event data cannot be serialized", e);
+            }
+        }
+        return frame.toByteArray();
+    }
+
+    private void enqueue(Subscriber subscriber, byte[] frame) {
+        if (!subscriber.queue.offer(frame)) {
+            log.debug("Dropping dashboard stream {}: queue full", subscriber.id);
+            drop(subscriber);
+            return;
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    /**
+     * Writes queued frames while the socket takes them, and flushes once the queue is empty. A
+     * write the socket cannot take at once is kept by the container, which then reports the
+     * stream not ready; draining stops there and resumes from {@code onWritePossible}.
+     */
+    private void drain(Subscriber subscriber) {
+        boolean stalled = false;
+        try {
+            ServletOutputStream out;
+            while (!subscriber.closed && (out = subscriber.out) != null) {
+                if (!out.isReady()) {
+                    stalled = true;
+                    if (subscriber.stalledSince == 0) {
+                        subscriber.stalledSince = System.currentTimeMillis();
+                    }
+                    break;
+                }
+                byte[] frame = subscriber.queue.poll();
+                if (frame == null && !subscriber.unflushed) {
+                    break;
+                }
+                subscriber.writing = true;
+                if (frame != null) {
+                    out.write(frame);
+                    subscriber.unflushed = true;
+                } else {
+                    out.flush();
+                    subscriber.unflushed = false;
+                }
+                subscriber.writing = false;
+            }
+        } catch (IOException | IllegalStateException e) {
+            close(subscriber);
+        } finally {
+            subscriber.writing = false;
+            subscriber.draining.set(false);
+        }
+        if (subscriber.closed) {
+            // Dropped while this thread was writing; completing was left to it.
+            complete(subscriber);
+        } else if (!subscriber.queue.isEmpty() && (!stalled || subscriber.stalledSince == 0)) {
+            // An event may have been enqueued, or the socket become writable again, after the last
+            // check but before the flag was cleared.
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void drop(Subscriber subscriber) {
+        dropped.increment();
+        close(subscriber);
+    }
+
+    /**
+     * Stops delivery to the subscriber. While a write is in progress, completing is left to the
+     * writing thread, so the response is not completed under it.
+     */
+    private void close(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscriber.queue.clear();
+        subscribers.remove(subscriber.id);
+        if (!subscriber.writing) {
+            complete(subscriber);
+        }
+    }
+
+    private static void complete(Subscriber subscriber) {
+        if (subscriber.completed.compareAndSet(false, true)) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    private static final class Subscriber {
+        final long id;
+        final Long userId;
+        final boolean admin;
+        final SseEmitter emitter;
+        final BlockingQueue<byte[]> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean completed = new AtomicBoolean();
+        /** Set once the container first reports the stream writable; nothing is written before. */
+        volatile ServletOutputStream out;
+        /** Since when the stream has been unable to take a write; 0 while it can. */
+        volatile long stalledSince;
+        volatile boolean writing;
+        /** Frames written since the last flush; only the draining thread touches it. */
+        boolean unflushed;
+        volatile boolean closed;
+
+        Subscriber(long id, Long userId, boolean admin, SseEmitter emitter, int capacity) {
+            this.id = id;
+            this.userId = userId;
+            this.admin = admin;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.blackpearl.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent read queries concurrently on a bounded pool, so a composite endpoint costs
+ * roughly its slowest query instead of the sum of all of them. Each branch has a timeout and a
+ * fallback value: a branch that fails or times out yields its fallback and is reported as
+ * degraded, and the caller still gets a (partial) result. When the pool is saturated, branches
+ * run on the caller's thread.
+ * <p>
+ * Branches run outside the caller's transaction and security context, each in a read-only
+ * transaction of its own whose timeout is the branch timeout (rounded up to whole seconds). JPA
+ * queries in it get that as their statement timeout, so the driver cancels a query that is
+ * still running and the branch gives back its thread and connection instead of finishing
+ * unobserved after the caller has fallen back.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FanOutExecutor {
+
+    @Value("${fan-out.threads:8}")
+    private int threads;
+
+    @Value("${fan-out.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${fan-out.branch-timeout-ms:2000}")
+    private long branchTimeoutMs;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private ThreadPoolExecutor pool;
+    private TransactionTemplate branchTransaction;
+
+    private final LongAdder branches = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        AtomicInteger seq = new AtomicInteger();
+        pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "fan-out-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        branchTransaction = new TransactionTemplate(transactionManager);
+        branchTransaction.setReadOnly(true);
+        branchTransaction.setTimeout((int) Math.max(1, (branchTimeoutMs + 999) / 1000));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public Scope scope() {
+        return new Scope();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("threads", threads);
+        stats.put("active", pool.getActiveCount());
+        stats.put("queued", pool.getQueue().size());
+        stats.put("branches", branches.sum());
+        stats.put("timeouts", timeouts.sum());
+        stats.put("failures", failures.sum());
+        return stats;
+    }
+
+    /** One fan-out: forks branches and records which of them fell back. */
+    public final class Scope {
+
+        private final Set<String> degraded = ConcurrentHashMap.newKeySet();
+
+        public <T> CompletableFuture<T> fork(String name, Supplier<T> query, T fallback) {
+            branches.increment();
+            return CompletableFuture.supplyAsync(() -> branchTransaction.execute(tx -> query.get()), pool)
+                    .orTimeout(branchTimeoutMs, TimeUnit.MILLISECONDS)
+                    .exceptionally(e -> {
+                        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                        if (cause instanceof TimeoutException) {
+                            timeouts.increment();
+                            log.warn("Fan-out branch '{}' timed out after {} ms", name, branchTimeoutMs);
+                        } else {
+                            failures.increment();
+                            log.warn("Fan-out branch '{}' failed", name, cause);
+                        }
+                        degraded.add(name);
+                        return fallback;
+                    });
+        }
+
+        /** Names of the branches that returned their fallback so far. */
+        public Set<String> degraded() {
+            return new TreeSet<>(degraded);
+        }
+    }
+}
@@ -1,28 +1,43 @@
 package com.blackpearl.service;
 
+import com.blackpearl.dto.CursorPage;
 import com.blackpearl.dto.InventoryDto;
+import com.blackpearl.dto.ListFilter;
 import com.blackpearl.exception.ResourceNotFoundException;
 import com.blackpearl.model.Inventory;
 import com.blackpearl.repository.InventoryRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class InventoryService {
 
+    private static final ListQuery.Projection<Inventory, InventoryDto> DTO = new ListQuery.Projection<>(
+            Inventory.class, InventoryDto.class, InventoryDto::getId,
+            List.of("id", "itemCode", "name", "category", "quantity", "unit", "unitPrice", "status"),
+            (i, cb) -> List.of(
+                    i.get("id"), i.get("itemCode"), i.get("name"), i.get("category"), i.get("quantity"),
+                    i.get("unit"), i.get("unitPrice"), i.get("status")));
+
     private final InventoryRepository inventoryRepository;
+    private final KeysetPaging keysetPaging;
+    private final ListQuery listQuery;
 
-    public List<InventoryDto> getAllInventory() {
-        return inventoryRepository.findAll().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<InventoryDto> getAllInventory(ListFilter filter, String cursor, Integer size) {
+        return listQuery.page(DTO, Specification.allOf(
+                ListQuery.enumEqual("status", Inventory.Status.class, filter.getStatus()),
+                ListQuery.equal("category", filter.getCategory()),
+                ListQuery.between("unitPrice", filter.getMin(), filter.getMax())),
+                filter, cursor, size);
     }
 
+    @Transactional(readOnly = true)
     public InventoryDto getInventoryById(Long id) {
         return inventoryRepository.findById(id)
                 .map(this::convertToDto)
@@ -83,11 +98,12 @@ public class InventoryService {
         inventoryRepository.deleteById(id);
     }
 
-    public List<InventoryDto> getAvailableItems() {
-        return inventoryRepository.findAll().stream()
-                .filter(i -> i.getStatus() == Inventory.Status.AVAILABLE)
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<InventoryDto> getAvailableItems(String cursor, Integer size) {
+        KeysetPaging.Keyset keyset = keysetPaging.resolve(cursor, size);
+        return keysetPaging.page(inventoryRepository.findByStatusAndIdLessThanOrderByIdDesc(
+                Inventory.Status.AVAILABLE, keyset.before(), keyset.limit()),
+                keyset, Inventory::getId, this::convertToDto);
     }
 
     public InventoryDto convertToDto(Inventory i) {
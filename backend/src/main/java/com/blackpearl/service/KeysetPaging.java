@@ -0,0 +1,86 @@
+package com.blackpearl.service;
+
+import com.blackpearl.dto.CursorPage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Seek-method pagination over the identity primary key, newest first. A page is read as
+ * {@code WHERE id < :before ORDER BY id DESC LIMIT size + 1}, an index range scan whatever the
+ * page depth, and the extra row only signals that another page exists. Ids are identity
+ * generated, so id order is creation order and a cursor stays valid while rows are added.
+ */
+@Component
+public class KeysetPaging {
+
+    private static final String CURSOR_PREFIX = "k1:";
+
+    @Value("${pagination.default-size:100}")
+    private int defaultSize;
+
+    @Value("${pagination.max-size:500}")
+    private int maxSize;
+
+    /** Where a page starts (the id of the previous page's last row, exclusive) and how many rows it holds. */
+    public record Keyset(Long cursorId, int size) {
+
+        /** Upper bound of a newest-first page. */
+        public long before() {
+            return cursorId != null ? cursorId : Long.MAX_VALUE;
+        }
+
+        /** Lower bound of an oldest-first page. */
+        public long after() {
+            return cursorId != null ? cursorId : 0L;
+        }
+
+        /** One row more than the page, to detect whether a next page exists. */
+        public Limit limit() {
+            return Limit.of(size + 1);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor was not issued by this API
+     */
+    public Keyset resolve(String cursor, Integer size) {
+        int pageSize = size == null ? defaultSize : Math.min(Math.max(size, 1), maxSize);
+        return new Keyset(cursor == null || cursor.isBlank() ? null : decode(cursor), pageSize);
+    }
+
+    /** Trims the look-ahead row of a page that was read straight into DTOs. */
+    public <T> CursorPage<T> page(List<T> rows, Keyset keyset, Function<T, Long> id) {
+        return page(rows, keyset, id, Function.identity());
+    }
+
+    /** Trims the look-ahead row and maps the rest; {@code rows} must be in seek order. */
+    public <E, T> CursorPage<T> page(List<E> rows, Keyset keyset, Function<E, Long> id, Function<E, T> mapper) {
+        boolean hasMore = rows.size() > keyset.size();
+        List<E> page = hasMore ? rows.subList(0, keyset.size()) : rows;
+        String next = hasMore ? encode(id.apply(page.get(page.size() - 1))) : null;
+        return new CursorPage<>(page.stream().map(mapper).toList(), next);
+    }
+
+    static String encode(long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static long decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (raw.startsWith(CURSOR_PREFIX)) {
+                return Long.parseLong(raw.substring(CURSOR_PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // Malformed base64 or a non-numeric id; reported below like any foreign cursor.
+        }
+        throw new IllegalArgumentException("Invalid cursor");
+    }
+}
@@ -0,0 +1,230 @@
+package com.blackpearl.service;
+
+import com.blackpearl.dto.CursorPage;
+import com.blackpearl.dto.ListFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Filtered, keyset-paginated list reads that select DTOs directly, built as Criteria queries
+ * from {@link Specification}s. Pages keep the id order of {@link KeysetPaging}, so the indexes
+ * behind the filters are declared as (filter columns..., id): in InnoDB every secondary index
+ * ends with the primary key, which makes an equality filter plus the id seek one index range
+ * scan. Date ranges are turned into id ranges for the same reason (see {@link #createdBetween}).
+ */
+@Component
+@RequiredArgsConstructor
+public class ListQuery {
+
+    /**
+     * How an entity's DTO is read: the DTO's id, and its constructor arguments in order, as
+     * field names (what {@code fields=} refers to) and as the columns they are read from.
+     */
+    public record Projection<E, T>(Class<E> entity, Class<T> dto, Function<T, Long> id, List<String> fields,
+            BiFunction<Root<E>, CriteriaBuilder, List<Selection<?>>> columns) {
+    }
+
+    private final KeysetPaging keysetPaging;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * One page of the rows matching {@code filter}, ordered by {@link ListFilter#getSort()}. With
+     * {@link ListFilter#getFields()} set, only those columns (and the id, which the cursor needs)
+     * are read; the others are selected as NULL, so large TEXT columns never leave MySQL.
+     *
+     * @throws IllegalArgumentException for an unsupported sort or an unknown field
+     */
+    public <E, T> CursorPage<T> page(Projection<E, T> projection, Specification<E> filter, ListFilter params,
+            String cursor, Integer size) {
+        boolean oldestFirst = oldestFirst(params.getSort());
+        Set<String> fields = fields(projection, params.getFields());
+        KeysetPaging.Keyset keyset = keysetPaging.resolve(cursor, size);
+        return keysetPaging.page(fetch(projection, filter, fields, oldestFirst, keyset), keyset, projection.id());
+    }
+
+    /**
+     * Like {@link #page}, for rows matching any of several disjoint filters. An OR of them would
+     * leave MySQL filtering rows in primary key order or sorting a merged set; instead each part
+     * is read as its own index range scan (its filter columns, then the id), at most one page
+     * deep, and the parts are merged by id.
+     */
+    public <E, T> CursorPage<T> pageUnion(Projection<E, T> projection, List<Specification<E>> parts,
+            ListFilter params, String cursor, Integer size) {
+        boolean oldestFirst = oldestFirst(params.getSort());
+        Set<String> fields = fields(projection, params.getFields());
+        KeysetPaging.Keyset keyset = keysetPaging.resolve(cursor, size);
+
+        Comparator<T> order = Comparator.comparing(projection.id());
+        List<T> rows = new ArrayList<>();
+        for (Specification<E> part : parts) {
+            rows.addAll(fetch(projection, part, fields, oldestFirst, keyset));
+        }
+        rows.sort(oldestFirst ? order : order.reversed());
+        return keysetPaging.page(rows.subList(0, Math.min(rows.size(), keyset.size() + 1)), keyset, projection.id());
+    }
+
+    /** Up to one row more than the page size past the cursor, in page order. */
+    private <E, T> List<T> fetch(Projection<E, T> projection, Specification<E> filter, Set<String> fields,
+            boolean oldestFirst, KeysetPaging.Keyset keyset) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(projection.dto());
+        Root<E> root = query.from(projection.entity());
+        select(query, root, cb, projection, fields);
+
+        Path<Long> id = root.get("id");
+        Predicate seek = oldestFirst ? cb.greaterThan(id, keyset.after()) : cb.lessThan(id, keyset.before());
+        Predicate where = filter != null ? filter.toPredicate(root, query, cb) : null;
+        query.where(where != null ? cb.and(where, seek) : seek);
+        query.orderBy(oldestFirst ? cb.asc(id) : cb.desc(id));
+
+        return entityManager.createQuery(query).setMaxResults(keyset.size() + 1).getResultList();
+    }
+
+    public <E, T> Optional<T> findById(Projection<E, T> projection, Long id) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(projection.dto());
+        Root<E> root = query.from(projection.entity());
+        select(query, root, cb, projection, null);
+        query.where(cb.equal(root.get("id"), id));
+        return entityManager.createQuery(query).getResultStream().findFirst();
+    }
+
+    /**
+     * Selects the DTO constructor; columns outside {@code fields}, unless it is null, become NULL
+     * literals. Primitive constructor arguments are always read, as they cannot take a null.
+     */
+    private static <E, T> void select(CriteriaQuery<T> query, Root<E> root, CriteriaBuilder cb,
+            Projection<E, T> projection, Set<String> fields) {
+        List<Selection<?>> columns = new ArrayList<>(projection.columns().apply(root, cb));
+        if (fields != null) {
+            Class<?>[] parameters = Arrays.stream(projection.dto().getConstructors())
+                    .filter(constructor -> constructor.getParameterCount() == columns.size())
+                    .findFirst()
+                    .orElseThrow()
+                    .getParameterTypes();
+            for (int i = 0; i < columns.size(); i++) {
+                if (!fields.contains(projection.fields().get(i)) && !parameters[i].isPrimitive()) {
+                    columns.set(i, cb.nullLiteral(columns.get(i).getJavaType()));
+                }
+            }
+        }
+        query.select(cb.construct(projection.dto(), columns.toArray(Selection<?>[]::new)));
+    }
+
+    /**
+     * The requested fields plus the id, or null for all of them.
+     *
+     * @throws IllegalArgumentException if a field is not one of the projection's
+     */
+    private static Set<String> fields(Projection<?, ?> projection, String requested) {
+        if (requested == null || requested.isBlank()) {
+            return null;
+        }
+        Set<String> fields = new HashSet<>();
+        fields.add("id");
+        for (String field : requested.split(",")) {
+            String name = field.trim();
+            if (!name.isEmpty() && !projection.fields().contains(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+            fields.add(name);
+        }
+        return fields;
+    }
+
+    /**
+     * Rows created within the given days, both inclusive, as an id range. Ids are assigned in
+     * creation order, so the first and last ids of the range are two single-row lookups on the
+     * created_at index, and the filtered list remains an id range scan on whichever index serves
+     * its other filters. Rows created within milliseconds of a day boundary by concurrent
+     * transactions may land on either side of it.
+     */
+    public <E> Specification<E> createdBetween(Class<E> entity, LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return null;
+        }
+        Long first = from == null ? Long.valueOf(0L) : boundaryId(entity, "e.createdAt >= :at", "ASC",
+                from.atStartOfDay());
+        Long last = to == null ? Long.valueOf(Long.MAX_VALUE) : boundaryId(entity, "e.createdAt < :at", "DESC",
+                to.plusDays(1).atStartOfDay());
+        if (first == null || last == null) {
+            return (root, query, cb) -> cb.disjunction();
+        }
+        return (root, query, cb) -> cb.between(root.get("id"), first, last);
+    }
+
+    private Long boundaryId(Class<?> entity, String condition, String direction, LocalDateTime at) {
+        return entityManager.createQuery("SELECT e.id FROM " + entity.getSimpleName() + " e WHERE " + condition
+                        + " ORDER BY e.createdAt " + direction + ", e.id " + direction, Long.class)
+                .setParameter("at", at)
+                .setMaxResults(1)
+                .getResultStream()
+                .findFirst()
+                .orElse(null);
+    }
+
+    /** Null (no restriction) when the value is null. */
+    public static <E> Specification<E> equal(String attribute, Object value) {
+        return value == null ? null : (root, query, cb) -> cb.equal(root.get(attribute), value);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value is not a constant of the enum
+     */
+    public static <E, S extends Enum<S>> Specification<E> enumEqual(String attribute, Class<S> type, String value) {
+        return value == null || value.isBlank() ? null : equal(attribute, Enum.valueOf(type, value.toUpperCase()));
+    }
+
+    public static <E> Specification<E> ownedBy(Long userId) {
+        return userId == null ? null : (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    /** Inclusive bounds on a numeric attribute; either may be null. */
+    public static <E> Specification<E> between(String attribute, BigDecimal min, BigDecimal max) {
+        if (min == null && max == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            Path<Number> value = root.get(attribute);
+            boolean integral = value.getJavaType() == Integer.class;
+            Predicate lower = min == null ? null
+                    : cb.ge(value, integral ? min.setScale(0, RoundingMode.CEILING).intValue() : min);
+            Predicate upper = max == null ? null
+                    : cb.le(value, integral ? max.setScale(0, RoundingMode.FLOOR).intValue() : max);
+            return lower == null ? upper : upper == null ? lower : cb.and(lower, upper);
+        };
+    }
+
+    /**
+     * @throws IllegalArgumentException for anything but {@code newest} and {@code oldest}
+     */
+    private static boolean oldestFirst(String sort) {
+        if (sort == null || sort.isBlank() || sort.equalsIgnoreCase("newest")) {
+            return false;
+        }
+        if (sort.equalsIgnoreCase("oldest")) {
+            return true;
+        }
+        throw new IllegalArgumentException("Unsupported sort: " + sort);
+    }
+}
@@ -0,0 +1,82 @@
+package com.blackpearl.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Login outcome counters plus a sliding window of the most recent login latencies, from which
+ * percentiles are computed on demand.
+ */
+@Component
+public class LoginMetrics {
+
+    private static final int WINDOW = 1024;
+
+    private final long[] latenciesNanos = new long[WINDOW];
+    private int next;
+    private int filled;
+
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder inactive = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public synchronized void recordLatency(long nanos) {
+        latenciesNanos[next] = nanos;
+        next = (next + 1) % WINDOW;
+        if (filled < WINDOW) {
+            filled++;
+        }
+    }
+
+    public void succeeded() {
+        succeeded.increment();
+    }
+
+    public void failed() {
+        failed.increment();
+    }
+
+    public void inactive() {
+        inactive.increment();
+    }
+
+    public void rejected() {
+        rejected.increment();
+    }
+
+    public Map<String, Object> snapshot() {
+        long[] window;
+        synchronized (this) {
+            window = Arrays.copyOf(latenciesNanos, filled);
+        }
+        Arrays.sort(window);
+
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("samples", window.length);
+        latency.put("p50Ms", percentileMillis(window, 0.50));
+        latency.put("p95Ms", percentileMillis(window, 0.95));
+        latency.put("p99Ms", percentileMillis(window, 0.99));
+        latency.put("maxMs", window.length > 0 ? window[window.length - 1] / 1_000_000.0 : 0.0);
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("succeeded", succeeded.sum());
+        snapshot.put("failed", failed.sum());
+        snapshot.put("inactive", inactive.sum());
+        snapshot.put("rejected", rejected.sum());
+        snapshot.put("latency", latency);
+        return snapshot;
+    }
+
+    private static double percentileMillis(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
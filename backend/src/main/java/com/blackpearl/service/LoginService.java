@@ -0,0 +1,121 @@
+package com.blackpearl.service;
+
+import com.blackpearl.model.User;
+import com.blackpearl.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Login pipeline: the user row is loaded once, inactive accounts are refused before any
+ * hashing, and BCrypt runs on a dedicated pool sized to the CPU count so a login storm cannot
+ * occupy every request thread. When the pool's queue is full the login is refused at once
+ * with {@link RejectedExecutionException} instead of queueing without bound.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LoginService {
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final LoginMetrics loginMetrics;
+
+    @Value("${login.hash-pool.threads:0}")
+    private int threads;
+
+    @Value("${login.hash-pool.queue-capacity:64}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor hashPool;
+    private String dummyHash;
+
+    @PostConstruct
+    void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger seq = new AtomicInteger();
+        hashPool = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "login-hash-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        // Unknown emails are hashed against this so they cost the same as a wrong password.
+        dummyHash = passwordEncoder.encode("blackpearl-unknown-user");
+        log.info("Login hash pool started with {} threads, queue capacity {}", poolSize, queueCapacity);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashPool.shutdown();
+    }
+
+    /**
+     * Authenticates the credentials. The returned future completes with the user, or
+     * exceptionally with {@link BadCredentialsException} or {@link DisabledException}.
+     *
+     * @throws RejectedExecutionException if the hash pool queue is full
+     */
+    public CompletableFuture<User> authenticate(String email, String rawPassword) {
+        long start = System.nanoTime();
+        Optional<User> found = email != null ? userRepository.findByEmail(email) : Optional.empty();
+
+        if (found.isPresent() && !found.get().isActive()) {
+            loginMetrics.inactive();
+            loginMetrics.recordLatency(System.nanoTime() - start);
+            return CompletableFuture.failedFuture(
+                    new DisabledException("User account is inactive. Please contact admin."));
+        }
+
+        String hash = found.map(User::getPassword).orElse(dummyHash);
+        String password = rawPassword != null ? rawPassword : "";
+        CompletableFuture<Boolean> matches;
+        try {
+            matches = CompletableFuture.supplyAsync(() -> passwordEncoder.matches(password, hash), hashPool);
+        } catch (RejectedExecutionException e) {
+            loginMetrics.rejected();
+            throw e;
+        }
+
+        return matches.thenApply(ok -> {
+            if (!ok || found.isEmpty()) {
+                throw new BadCredentialsException("Invalid email or password");
+            }
+            return found.get();
+        }).whenComplete((user, ex) -> {
+            loginMetrics.recordLatency(System.nanoTime() - start);
+            if (ex == null) {
+                loginMetrics.succeeded();
+            } else {
+                loginMetrics.failed();
+            }
+        });
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>(loginMetrics.snapshot());
+        metrics.put("hashPoolSize", hashPool.getPoolSize());
+        metrics.put("activeHashes", hashPool.getActiveCount());
+        metrics.put("queueDepth", hashPool.getQueue().size());
+        metrics.put("queueCapacity", queueCapacity);
+        return metrics;
+    }
+}
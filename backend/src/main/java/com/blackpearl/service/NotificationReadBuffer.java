@@ -0,0 +1,224 @@
+package com.blackpearl.service;
+
+import com.blackpearl.model.NotificationReadState;
+import com.blackpearl.repository.NotificationReadStateRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind buffer for "mark as read". Acknowledgements are collected per user in memory
+ * and written every {@code flush-interval-ms}, or as soon as {@code flush-size} are pending, in
+ * one transaction: per user one insert of receipts and one update of the unread count, however
+ * many notifications they clicked. Whether a user may read a notification is checked by the
+ * insert, which skips anyone else's; unknown ids are skipped the same way.
+ * <p>
+ * Until then pending acknowledgements are overlaid on reads, and the caller's own are written
+ * before their unread count is read. Acknowledgements still pending when the instance stops
+ * uncleanly are lost; shutdown flushes them.
+ * <p>
+ * If the batch fails, each user is retried in a transaction of their own, so one user's
+ * failure does not hold back the others. A user's acknowledgements are kept for the next flush
+ * until they have failed {@code max-attempts} times, then dropped with a warning.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationReadBuffer {
+
+    @Value("${notifications.read-buffer.flush-size:500}")
+    private int flushSize;
+
+    @Value("${notifications.read-buffer.max-attempts:3}")
+    private int maxAttempts;
+
+    private final NotificationReadStateRepository readStates;
+    private final CollectionStamps stamps;
+    private final PlatformTransactionManager transactionManager;
+
+    private final ConcurrentHashMap<Long, Set<Long>> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    /** Failed writes per user since their last successful one; guarded by {@link #flush()}. */
+    private final Map<Long, Integer> attempts = new HashMap<>();
+    private TransactionTemplate flushTransaction;
+    private ExecutorService flusher;
+
+    @PostConstruct
+    void init() {
+        flushTransaction = new TransactionTemplate(transactionManager);
+        flusher = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "notification-read-flush");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flusher.shutdown();
+        flush();
+    }
+
+    public void accept(Long userId, Long notificationId) {
+        boolean[] added = new boolean[1];
+        // Sets are only touched inside compute, which is atomic per user.
+        pending.compute(userId, (id, ids) -> {
+            Set<Long> set = ids != null ? ids : new HashSet<>();
+            added[0] = set.add(notificationId);
+            return set;
+        });
+        // Moves the ETags of the user's notification lists, which show pending acknowledgements as read.
+        stamps.bump(NotificationReadState.class, userId);
+        if (added[0] && pendingCount.incrementAndGet() >= flushSize) {
+            flushSoon();
+        }
+    }
+
+    /** The user's acknowledgements not written yet. */
+    public Set<Long> pendingFor(Long userId) {
+        List<Set<Long>> copy = new ArrayList<>(1);
+        pending.computeIfPresent(userId, (id, ids) -> {
+            copy.add(Set.copyOf(ids));
+            return ids;
+        });
+        return copy.isEmpty() ? Set.of() : copy.get(0);
+    }
+
+    /** Writes the user's pending acknowledgements in the caller's transaction. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void flush(Long userId) {
+        Set<Long> ids = take(userId);
+        if (ids != null) {
+            write(Map.of(userId, ids));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.read-buffer.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        Map<Long, Set<Long>> batch = new HashMap<>();
+        for (Long userId : pending.keySet()) {
+            Set<Long> ids = take(userId);
+            if (ids != null) {
+                batch.put(userId, ids);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            flushTransaction.executeWithoutResult(tx -> write(batch));
+            attempts.keySet().removeAll(batch.keySet());
+            return;
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.forEach((userId, ids) -> failed(userId, ids, e));
+                return;
+            }
+            log.warn("Writing {} users' read acknowledgements failed, writing them one by one: {}",
+                    batch.size(), e.getMessage());
+        }
+        batch.forEach((userId, ids) -> {
+            try {
+                flushTransaction.executeWithoutResult(tx -> write(Map.of(userId, ids)));
+                attempts.remove(userId);
+            } catch (RuntimeException e) {
+                failed(userId, ids, e);
+            }
+        });
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", pendingCount.get());
+        stats.put("flushes", flushes.get());
+        stats.put("receiptsWritten", written.get());
+        stats.put("dropped", dropped.get());
+        return stats;
+    }
+
+    /** Keeps a user's acknowledgements for the next flush, or drops them after too many failures. */
+    private void failed(Long userId, Set<Long> ids, RuntimeException e) {
+        int failures = attempts.merge(userId, 1, Integer::sum);
+        if (failures >= maxAttempts) {
+            attempts.remove(userId);
+            dropped.addAndGet(ids.size());
+            log.warn("Dropping {} read acknowledgements of user {} after {} failed writes: {}",
+                    ids.size(), userId, failures, e.getMessage());
+            return;
+        }
+        log.warn("Writing {} read acknowledgements of user {} failed, retrying next flush: {}",
+                ids.size(), userId, e.getMessage());
+        int[] added = new int[1];
+        pending.compute(userId, (id, current) -> {
+            Set<Long> set = current != null ? current : new HashSet<>();
+            ids.forEach(ackId -> {
+                if (set.add(ackId)) {
+                    added[0]++;
+                }
+            });
+            return set;
+        });
+        pendingCount.addAndGet(added[0]);
+    }
+
+    private Set<Long> take(Long userId) {
+        Set<Long> ids = pending.remove(userId);
+        if (ids != null) {
+            pendingCount.addAndGet(-ids.size());
+        }
+        return ids;
+    }
+
+    private void write(Map<Long, Set<Long>> batch) {
+        Set<Long> missing = new HashSet<>(batch.keySet());
+        readStates.findAllById(batch.keySet()).forEach(s -> missing.remove(s.getUserId()));
+        // A new row counts everything addressed to the user as unread, so it must precede the receipts.
+        missing.forEach(readStates::createIfAbsent);
+
+        long receipts = 0;
+        for (Map.Entry<Long, Set<Long>> acks : batch.entrySet()) {
+            int added = readStates.addReceipts(acks.getKey(), acks.getValue());
+            if (added > 0) {
+                readStates.decrementUnread(acks.getKey(), added);
+            }
+            receipts += added + readStates.addBroadcastReceipts(acks.getKey(), acks.getValue());
+        }
+        flushes.incrementAndGet();
+        written.addAndGet(receipts);
+        batch.keySet().forEach(userId -> stamps.bumpAfterCommit(NotificationReadState.class, userId));
+    }
+
+    private void flushSoon() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            try {
+                flusher.execute(() -> {
+                    flushScheduled.set(false);
+                    flush();
+                });
+            } catch (RejectedExecutionException e) {
+                flushScheduled.set(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.blackpearl.service;
+
+import com.blackpearl.config.NotificationRetentionProperties;
+import com.blackpearl.model.Notification;
+import com.blackpearl.repository.NotificationReadStateRepository;
+import com.blackpearl.repository.NotificationRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Enforces {@link NotificationRetentionProperties}. A run walks the notifications in primary key
+ * ranges of {@code batch-size}, oldest first, each range in its own short transaction, and
+ * stops at the first range holding a notification too young for any rule: ids follow creation
+ * time, so nothing after it is due. Unread counts of the recipients, and receipts, are
+ * adjusted in the same transaction.
+ * <p>
+ * Scheduled runs are handed to a thread of their own, so a long purge and its pauses do not
+ * hold up the other scheduled jobs.
+ * <p>
+ * Every instance runs the job; where several share a database, enable it on one of them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationRetentionService {
+
+    private final NotificationRetentionProperties properties;
+    private final NotificationRepository notificationRepository;
+    private final NotificationReadStateRepository readStates;
+    private final CollectionStamps stamps;
+    private final PlatformTransactionManager transactionManager;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Map<String, Object> lastRun = Map.of();
+    private TransactionTemplate batchTransaction;
+    private ExecutorService purger;
+
+    @PostConstruct
+    void init() {
+        batchTransaction = new TransactionTemplate(transactionManager);
+        purger = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "notification-retention");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Interrupts a run's pause; the batch in flight commits or rolls back on its own.
+        purger.shutdownNow();
+    }
+
+    @Scheduled(cron = "${notifications.retention.cron:0 30 3 * * *}")
+    public void scheduledPurge() {
+        if (properties.isEnabled()) {
+            purger.execute(this::purge);
+        }
+    }
+
+    /**
+     * Runs the purge now, unless a run is already in progress.
+     *
+     * @return the run's report, or the previous one if a run was in progress
+     */
+    public Map<String, Object> purge() {
+        if (!running.compareAndSet(false, true)) {
+            return lastRun;
+        }
+        try {
+            lastRun = run();
+            return lastRun;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", properties.isEnabled());
+        stats.put("running", running.get());
+        stats.put("lastRun", lastRun);
+        return stats;
+    }
+
+    private Map<String, Object> run() {
+        long started = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        Map<Notification.Type, LocalDateTime> readCutoffs = new LinkedHashMap<>();
+        Map<Notification.Type, LocalDateTime> unreadCutoffs = new LinkedHashMap<>();
+        LocalDateTime latestCutoff = LocalDateTime.MIN;
+        for (Notification.Type type : Notification.Type.values()) {
+            LocalDateTime read = now.minus(properties.readMaxAge(type));
+            LocalDateTime unread = now.minus(properties.unreadMaxAge(type));
+            readCutoffs.put(type, read);
+            unreadCutoffs.put(type, unread);
+            latestCutoff = max(latestCutoff, max(read, unread));
+        }
+        // Notifications created from here on are younger than every rule.
+        LocalDateTime retainedFrom = latestCutoff;
+
+        long purged = 0;
+        int batches = 0;
+        Long maxId = notificationRepository.findMaxId();
+        Long fromId = notificationRepository.findMinIdAfter(0L);
+        while (fromId != null && maxId != null && fromId <= maxId) {
+            Long toId = fromId + Math.max(properties.getBatchSize(), 1) - 1;
+            Long from = fromId;
+            BatchResult batch = batchTransaction.execute(tx -> {
+                Set<Long> ids = new HashSet<>();
+                Set<Long> recipients = new HashSet<>();
+                for (Notification.Type type : Notification.Type.values()) {
+                    for (Object[] row : notificationRepository.findPurgeableBetween(from, toId, type.name(),
+                            readCutoffs.get(type), unreadCutoffs.get(type))) {
+                        Long id = ((Number) row[0]).longValue();
+                        ids.add(id);
+                        // Broadcasts are not in the counts.
+                        if (row[1] != null) {
+                            recipients.add(((Number) row[1]).longValue());
+                        }
+                    }
+                }
+                if (!ids.isEmpty()) {
+                    if (!recipients.isEmpty()) {
+                        readStates.decrementUnreadForPurge(recipients, ids);
+                    }
+                    // Receipts carry no foreign key to cascade from.
+                    readStates.deleteReceiptsForAll(ids);
+                    notificationRepository.deleteAllByIdIn(ids);
+                    // Lists show read state of listed notifications only; their stamp covers it.
+                    stamps.bumpAfterCommit(Notification.class);
+                }
+                return new BatchResult(ids.size(),
+                        notificationRepository.existsCreatedSinceBetween(from, toId, retainedFrom));
+            });
+            batches++;
+            purged += batch.deleted();
+            if (batch.reachedRetained() || !pause()) {
+                break;
+            }
+            fromId = notificationRepository.findMinIdAfter(toId);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", now);
+        report.put("purged", purged);
+        report.put("batches", batches);
+        report.put("tookMs", System.currentTimeMillis() - started);
+        log.info("Notification retention purged {} rows in {} batches, {} ms", purged, batches, report.get("tookMs"));
+        return report;
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.getBatchPause().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private record BatchResult(int deleted, boolean reachedRetained) {
+    }
+}
@@ -0,0 +1,172 @@
+package com.blackpearl.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Recently pushed notification frames, so a reconnecting stream can resume from the last event
+ * id it saw ({@code Last-Event-ID}) without a query. Each user has a bounded ring of their own
+ * notifications; broadcasts are kept once, in a shared ring.
+ * <p>
+ * Event ids are a sequence in publishing order, prefixed with the instance's start time: ids
+ * from before a restart, or below the newest entry a ring has evicted, cannot be replayed and
+ * the client reloads instead. Rings are kept for the {@code max-users} users most recently sent
+ * a notification or resumed; a user whose ring was dropped can only resume from after the
+ * newest entry dropped with any ring. Like the dashboard counters, only notifications sent
+ * through this instance are seen. Callers synchronize on this object.
+ */
+@Component
+public class NotificationRingBuffers {
+
+    @Value("${notifications.stream.user-buffer:50}")
+    private int userCapacity;
+
+    @Value("${notifications.stream.broadcast-buffer:200}")
+    private int broadcastCapacity;
+
+    @Value("${notifications.stream.max-users:1000}")
+    private int maxUsers;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    /** In access order, least recently used first. */
+    private final Map<Long, Ring> users = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Ring> eldest) {
+            if (size() <= maxUsers) {
+                return false;
+            }
+            Ring dropped = eldest.getValue();
+            dropped.entries.forEach(e -> byNotification.remove(e.notificationId()));
+            droppedFloor = Math.max(droppedFloor, dropped.newest());
+            return true;
+        }
+    };
+    /** The ring holding each buffered notification, for deletes. */
+    private final Map<Long, Ring> byNotification = new HashMap<>();
+    private Ring broadcasts;
+    private long sequence;
+    /** The newest entry dropped along with a whole ring; the floor of rings created after. */
+    private long droppedFloor;
+
+    /** Assigns the event id of the next notification. */
+    long next() {
+        return ++sequence;
+    }
+
+    String eventId(long seq) {
+        return epoch + "." + seq;
+    }
+
+    /** The id a stream that has seen everything so far resumes from. */
+    String latestEventId() {
+        return eventId(sequence);
+    }
+
+    /**
+     * Records a notification frame sent to {@code userId}, or to everyone if it is null, under
+     * the sequence number from {@link #next()}.
+     */
+    void add(long seq, long notificationId, Long userId, byte[] frame) {
+        Ring ring;
+        if (userId == null) {
+            if (broadcasts == null) {
+                broadcasts = new Ring(broadcastCapacity, 0);
+            }
+            ring = broadcasts;
+        } else {
+            ring = users.computeIfAbsent(userId, u -> new Ring(userCapacity, droppedFloor));
+        }
+        Entry evicted = ring.add(new Entry(seq, notificationId, frame));
+        if (evicted != null) {
+            byNotification.remove(evicted.notificationId());
+        }
+        byNotification.put(notificationId, ring);
+    }
+
+    /** Stops replaying a deleted notification. */
+    void remove(long notificationId) {
+        Ring ring = byNotification.remove(notificationId);
+        if (ring != null) {
+            ring.remove(notificationId);
+        }
+    }
+
+    /**
+     * The user's notifications and broadcasts published after {@code lastEventId}, oldest first,
+     * or empty if that id is unknown here or part of the range has been evicted.
+     */
+    Optional<List<byte[]>> since(Long userId, String lastEventId) {
+        if (lastEventId == null || !lastEventId.startsWith(epoch + ".")) {
+            return Optional.empty();
+        }
+        long after;
+        try {
+            after = Long.parseLong(lastEventId.substring(epoch.length() + 1));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+        Ring own = users.get(userId);
+        if (after > sequence || (broadcasts != null && after < broadcasts.floor)
+                || after < (own != null ? own.floor : droppedFloor)) {
+            return Optional.empty();
+        }
+        List<Entry> entries = new ArrayList<>();
+        if (broadcasts != null) {
+            entries.addAll(broadcasts.after(after));
+        }
+        if (own != null) {
+            entries.addAll(own.after(after));
+        }
+        entries.sort(Comparator.comparingLong(Entry::seq));
+        return Optional.of(entries.stream().map(Entry::frame).toList());
+    }
+
+    private record Entry(long seq, long notificationId, byte[] frame) {
+    }
+
+    /** Entries in sequence order; every sequence number above {@code floor} is still held. */
+    private static final class Ring {
+        final int capacity;
+        final ArrayDeque<Entry> entries;
+        long floor;
+
+        Ring(int capacity, long floor) {
+            this.capacity = Math.max(capacity, 1);
+            this.entries = new ArrayDeque<>(this.capacity);
+            this.floor = floor;
+        }
+
+        /** Adds the entry, returning the one it evicted, if any. */
+        Entry add(Entry entry) {
+            Entry evicted = null;
+            if (entries.size() == capacity) {
+                evicted = entries.pollFirst();
+                floor = evicted.seq();
+            }
+            entries.addLast(entry);
+            return evicted;
+        }
+
+        long newest() {
+            return entries.isEmpty() ? floor : entries.peekLast().seq();
+        }
+
+        void remove(long notificationId) {
+            entries.removeIf(e -> e.notificationId() == notificationId);
+        }
+
+        List<Entry> after(long seq) {
+            List<Entry> newer = new ArrayList<>();
+            for (Iterator<Entry> it = entries.descendingIterator(); it.hasNext(); ) {
+                Entry entry = it.next();
+                if (entry.seq() <= seq) {
+                    break;
+                }
+                newer.add(entry);
+            }
+            return newer;
+        }
+    }
+}
@@ -1,90 +1,213 @@
 package com.blackpearl.service;
 
+import com.blackpearl.dto.CursorPage;
+import com.blackpearl.dto.ListFilter;
 import com.blackpearl.dto.NotificationDto;
 import com.blackpearl.exception.ResourceNotFoundException;
 import com.blackpearl.model.Notification;
+import com.blackpearl.model.NotificationReadState;
+import com.blackpearl.model.NotificationReceipt;
 import com.blackpearl.model.User;
+import com.blackpearl.repository.NotificationReadStateRepository;
 import com.blackpearl.repository.NotificationRepository;
 import com.blackpearl.repository.UserRepository;
+import com.blackpearl.security.CurrentUserResolver;
+import com.blackpearl.service.UserIdentityCache.UserIdentity;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class NotificationService {
 
+    private static final ListQuery.Projection<Notification, NotificationDto> DTO = new ListQuery.Projection<>(
+            Notification.class, NotificationDto.class, NotificationDto::getId,
+            List.of("id", "userId", "userEmail", "title", "message", "type", "read", "createdAt"),
+            (n, cb) -> {
+                // Broadcasts have no recipient.
+                Join<Notification, User> u = n.join("user", JoinType.LEFT);
+                // Read state is per user, filled in after the query (withReadState).
+                return List.of(n.get("id"), u.get("id"), u.get("email"), n.get("title"), n.get("message"),
+                        n.get("type"), cb.literal(false), n.get("createdAt"));
+            });
+
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
+    private final CurrentUserResolver currentUser;
+    private final UserIdentityCache userIdentityCache;
+    private final DashboardStreamService dashboardStream;
+    private final ListQuery listQuery;
+    private final NotificationReadStateRepository readStates;
+    private final CollectionStamps stamps;
+    private final NotificationReadBuffer readBuffer;
 
-    public List<NotificationDto> getNotificationsForUser(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + email));
-        return notificationRepository.findByUserIdOrBroadcast(user.getId()).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    /**
+     * The user's inbox: their own notifications and broadcasts, merged from two range scans of
+     * idx_notifications_user (which ends with the id, i.e. creation order). Of the filter only
+     * {@code sort} and {@code fields} apply.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<NotificationDto> getNotificationsForUser(String email, ListFilter filter, String cursor,
+            Integer size) {
+        Long userId = currentUser.resolveUserId(email);
+        return withReadState(listQuery.pageUnion(DTO, List.of(
+                (root, query, cb) -> cb.equal(root.get("user").get("id"), userId),
+                (root, query, cb) -> cb.isNull(root.get("user"))),
+                filter, cursor, size), userId);
     }
 
-    @Transactional
-    public List<NotificationDto> getAllNotifications() {
-        return notificationRepository.findAll().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<NotificationDto> getAllNotifications(ListFilter filter, String cursor, Integer size) {
+        return withReadState(listQuery.page(DTO, null, filter, cursor, size),
+                com.blackpearl.security.SecurityUtils.getCurrentUserId());
+    }
+
+    /**
+     * Sets {@code read} on a page: a notification addressed to someone is read when its recipient
+     * has read it, a broadcast when the caller has. One lookup for the watermarks and one for the
+     * receipts of the page's notifications, plus acknowledgements not written yet.
+     */
+    private CursorPage<NotificationDto> withReadState(CursorPage<NotificationDto> page, Long callerId) {
+        List<NotificationDto> items = page.getItems();
+        if (items.isEmpty()) {
+            return page;
+        }
+        Set<Long> readers = new HashSet<>();
+        items.forEach(n -> readers.add(n.getUserId() != null ? n.getUserId() : callerId));
+        Map<Long, Long> readThrough = new HashMap<>();
+        readStates.findAllById(readers).forEach(s -> readThrough.put(s.getUserId(), s.getReadThroughId()));
+        Set<NotificationReceipt.Key> receipts = new HashSet<>();
+        readStates.findReceipts(items.stream().map(NotificationDto::getId).toList())
+                .forEach(r -> receipts.add(new NotificationReceipt.Key(r.getUserId(), r.getNotificationId())));
+        readers.forEach(reader -> readBuffer.pendingFor(reader)
+                .forEach(id -> receipts.add(new NotificationReceipt.Key(reader, id))));
+
+        for (NotificationDto n : items) {
+            Long reader = n.getUserId() != null ? n.getUserId() : callerId;
+            n.setRead(n.getId() <= readThrough.getOrDefault(reader, 0L)
+                    || receipts.contains(new NotificationReceipt.Key(reader, n.getId())));
+        }
+        return page;
     }
 
+    /**
+     * The caller's unread notifications: a primary key lookup and a count of the broadcasts above
+     * their watermark, once their read state exists and their pending acknowledgements are written.
+     */
     @Transactional
-    public NotificationDto markRead(Long id) {
-        Notification n = notificationRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Notification not found"));
-        n.setRead(true);
-        return convertToDto(notificationRepository.save(n));
+    public long unreadCount(String email) {
+        Long userId = currentUser.resolveUserId(email);
+        readBuffer.flush(userId);
+        return ensureReadState(userId);
+    }
+
+    /**
+     * Marks a notification read for the caller, written behind by {@link NotificationReadBuffer}.
+     * Only the recipient can mark a direct notification; other acknowledgements are dropped then.
+     */
+    public void markRead(String email, Long id) {
+        readBuffer.accept(currentUser.resolveUserId(email), id);
     }
 
+    /**
+     * Marks everything up to the newest notification read for the caller: one update of their
+     * watermark and one delete of the receipts it makes redundant.
+     */
     @Transactional
-    public void markAllRead() {
-        List<Notification> notifications = notificationRepository.findAll();
-        notifications.forEach(n -> n.setRead(true));
-        notificationRepository.saveAll(notifications);
+    public void markAllRead(String email) {
+        Long userId = currentUser.resolveUserId(email);
+        Long latest = notificationRepository.findMaxId();
+        if (latest == null) {
+            return;
+        }
+        createReadStateIfAbsent(userId);
+        readStates.markReadThrough(userId, latest);
+        readStates.deleteReceiptsThrough(userId, latest);
+        stamps.bumpAfterCommit(NotificationReadState.class, userId);
+    }
+
+    public Map<String, Object> readBufferStats() {
+        return readBuffer.stats();
+    }
+
+    /** Creates the user's read state on first use, counting what is addressed to them so far. */
+    private long ensureReadState(Long userId) {
+        return readStates.findUnreadCount(userId).orElseGet(() -> {
+            readStates.createIfAbsent(userId);
+            return readStates.findUnreadCount(userId).orElse(0L);
+        });
+    }
+
+    private void createReadStateIfAbsent(Long userId) {
+        if (!readStates.existsById(userId)) {
+            readStates.createIfAbsent(userId);
+        }
     }
 
     @Transactional
     public NotificationDto sendNotification(NotificationDto dto) {
         User target = null;
-        if (dto.getUserId() != null) {
-            target = userRepository.findById(dto.getUserId()).orElse(null);
+        if (dto.getUserId() != null && userIdentityCache.find(dto.getUserId()).isPresent()) {
+            target = userRepository.getReferenceById(dto.getUserId());
+            // The row must exist before the notification it is about to count (createIfAbsent).
+            createReadStateIfAbsent(target.getId());
         }
         Notification n = Notification.builder()
                 .user(target)
                 .title(dto.getTitle())
                 .message(dto.getMessage())
                 .type(dto.getType() != null ? dto.getType() : Notification.Type.INFO)
-                .read(false)
                 .createdAt(LocalDateTime.now())
                 .build();
-        return convertToDto(notificationRepository.save(n));
+        NotificationDto saved = convertToDto(notificationRepository.save(n));
+        // Broadcasts are counted against each reader's watermark instead.
+        if (target != null) {
+            readStates.incrementUnread(target.getId());
+        }
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("id", saved.getId());
+        data.put("title", saved.getTitle());
+        data.put("message", saved.getMessage());
+        data.put("type", saved.getType());
+        data.put("createdAt", saved.getCreatedAt());
+        dashboardStream.publishNotificationAfterCommit(saved.getId(), target != null ? target.getId() : null, data);
+        return saved;
     }
 
     @Transactional
     public void deleteNotification(Long id) {
-        if (!notificationRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Notification not found");
+        Notification n = notificationRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Notification not found"));
+        if (n.getUser() != null) {
+            readStates.decrementUnreadFor(id, n.getUser().getId());
         }
-        notificationRepository.deleteById(id);
+        readStates.deleteReceiptsFor(id);
+        notificationRepository.delete(n);
+        dashboardStream.forgetNotificationAfterCommit(id);
     }
 
     public NotificationDto convertToDto(Notification n) {
+        UserIdentity recipient = n.getUser() != null ? userIdentityCache.get(n.getUser().getId()) : null;
         return NotificationDto.builder()
                 .id(n.getId())
-                .userId(n.getUser() != null ? n.getUser().getId() : null)
-                .userEmail(n.getUser() != null ? n.getUser().getEmail() : null)
+                .userId(recipient != null ? recipient.id() : null)
+                .userEmail(recipient != null ? recipient.email() : null)
                 .title(n.getTitle())
                 .message(n.getMessage())
                 .type(n.getType())
-                .read(n.isRead())
+                .read(false)
                 .createdAt(n.getCreatedAt())
                 .build();
     }
@@ -0,0 +1,75 @@
+package com.blackpearl.service;
+
+import com.blackpearl.model.Payment;
+import com.blackpearl.repository.MonthlyRevenue;
+import com.blackpearl.repository.PaymentRevenueRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Keeps {@code payment_revenue_rollup} in step with completed payments. Revenue is bucketed by
+ * the month a payment completed ({@code approvedAt}, or {@code createdAt} for payments that
+ * never recorded an approval time).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentRevenueRollupService {
+
+    private final PaymentRevenueRollupRepository rollupRepository;
+
+    /** Adds a payment that has just become COMPLETED. Must run in the status change transaction. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCompleted(Payment payment) {
+        apply(payment, payment.getAmount(), 1);
+    }
+
+    /** Removes a payment that is leaving COMPLETED. Must run in the status change transaction. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordReversed(Payment payment) {
+        apply(payment, payment.getAmount().negate(), -1);
+    }
+
+    private void apply(Payment payment, BigDecimal amount, long count) {
+        LocalDateTime completedAt = payment.getApprovedAt() != null ? payment.getApprovedAt() : payment.getCreatedAt();
+        if (completedAt == null) {
+            return;
+        }
+        rollupRepository.addRevenue(YearMonth.from(completedAt).atDay(1), payment.getMethod().name(), amount, count);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() > 0) {
+            return;
+        }
+        int rows = rollupRepository.backfillFromPayments();
+        log.info("Payment revenue rollup backfilled with {} rows", rows);
+    }
+
+    public BigDecimal revenueForMonth(YearMonth month) {
+        return rollupRepository.sumRevenueBetween(month.atDay(1), month.plusMonths(1).atDay(1));
+    }
+
+    public BigDecimal totalRevenue() {
+        return rollupRepository.sumTotalRevenue();
+    }
+
+    /** Revenue per month for months in [first, first + months). */
+    public List<MonthlyRevenue> revenueByMonth(YearMonth first, int months) {
+        LocalDate start = first.atDay(1);
+        return rollupRepository.sumRevenueByMonth(start, first.plusMonths(months).atDay(1));
+    }
+}
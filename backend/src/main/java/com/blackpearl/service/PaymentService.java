@@ -1,65 +1,116 @@
 package com.blackpearl.service;
 
+import com.blackpearl.dto.CursorPage;
+import com.blackpearl.dto.ListFilter;
 import com.blackpearl.dto.PaymentDto;
 import com.blackpearl.exception.ResourceNotFoundException;
 import com.blackpearl.model.Payment;
 import com.blackpearl.model.User;
 import com.blackpearl.repository.PaymentRepository;
-import com.blackpearl.repository.UserRepository;
+import com.blackpearl.security.CurrentUserResolver;
+import com.blackpearl.service.UserIdentityCache.UserIdentity;
+import jakarta.persistence.criteria.Join;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.util.List;
-import java.util.stream.Collectors;
+
+import static com.blackpearl.service.StreamingExporter.column;
 
 @Service
 @RequiredArgsConstructor
 public class PaymentService {
 
-    private final PaymentRepository paymentRepository;
-    private final UserRepository userRepository;
+    private static final ListQuery.Projection<Payment, PaymentDto> DTO = new ListQuery.Projection<>(
+            Payment.class, PaymentDto.class, PaymentDto::getId,
+            List.of("id", "userId", "userEmail", "userName", "paymentRef", "amount", "method", "status",
+                    "description", "createdAt"),
+            (p, cb) -> {
+                Join<Payment, User> u = p.join("user");
+                return List.of(p.get("id"), u.get("id"), u.get("email"),
+                        cb.concat(cb.concat(u.get("firstName"), " "), u.get("lastName")),
+                        p.get("paymentRef"), p.get("amount"), p.get("method"), p.get("status"),
+                        p.get("description"), p.get("createdAt"));
+            });
+
+    private static final List<StreamingExporter.Column<Payment>> EXPORT_COLUMNS = List.of(
+            column("id", Payment::getId),
+            column("paymentRef", Payment::getPaymentRef),
+            column("userId", p -> p.getUser().getId()),
+            column("userEmail", p -> p.getUser().getEmail()),
+            column("amount", Payment::getAmount),
+            column("method", Payment::getMethod),
+            column("status", Payment::getStatus),
+            column("description", Payment::getDescription),
+            column("approvedAt", Payment::getApprovedAt),
+            column("createdAt", Payment::getCreatedAt));
 
-    public List<PaymentDto> getAllPayments() {
+    private final PaymentRepository paymentRepository;
+    private final PaymentRevenueRollupService revenueRollup;
+    private final DashboardSnapshotCache dashboardSnapshots;
+    private final DashboardStreamService dashboardStream;
+    private final CurrentUserResolver currentUser;
+    private final ListQuery listQuery;
+    private final StreamingExporter exporter;
+    private final UserIdentityCache userIdentityCache;
+
+    @Transactional(readOnly = true)
+    public CursorPage<PaymentDto> getAllPayments(ListFilter filter, String cursor, Integer size) {
         if (com.blackpearl.security.SecurityUtils.isAdmin()) {
-            return paymentRepository.findAll().stream()
-                    .map(this::convertToDto)
-                    .collect(Collectors.toList());
+            return listPayments(filter, filter.getUserId(), cursor, size);
         }
-        return getPaymentsByUser(com.blackpearl.security.SecurityUtils.getCurrentUserEmail());
+        return getPaymentsByUser(com.blackpearl.security.SecurityUtils.getCurrentUserEmail(), filter, cursor, size);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<PaymentDto> getPaymentsByUser(String email, ListFilter filter, String cursor, Integer size) {
+        return listPayments(filter, currentUser.resolveUserId(email), cursor, size);
+    }
+
+    private CursorPage<PaymentDto> listPayments(ListFilter filter, Long userId, String cursor, Integer size) {
+        return listQuery.page(DTO, Specification.allOf(
+                ListQuery.ownedBy(userId),
+                ListQuery.enumEqual("status", Payment.Status.class, filter.getStatus()),
+                ListQuery.enumEqual("method", Payment.Method.class, filter.getMethod()),
+                listQuery.createdBetween(Payment.class, filter.getFrom(), filter.getTo()),
+                ListQuery.between("amount", filter.getMin(), filter.getMax())),
+                filter, cursor, size);
     }
 
-    public List<PaymentDto> getPaymentsByUser(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + email));
-        return paymentRepository.findByUserId(user.getId()).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    /** The whole history for admins, the caller's own rows otherwise, streamed as CSV or NDJSON. */
+    public ResponseEntity<StreamingResponseBody> exportPayments(String format) {
+        if (com.blackpearl.security.SecurityUtils.isAdmin()) {
+            return exporter.export("payments", format, paymentRepository::streamAllWithUser, EXPORT_COLUMNS);
+        }
+        Long userId = currentUser.resolveUserId(com.blackpearl.security.SecurityUtils.getCurrentUserEmail());
+        return exporter.export("payments", format, () -> paymentRepository.streamByUserIdWithUser(userId), EXPORT_COLUMNS);
     }
 
+    @Transactional(readOnly = true)
     public PaymentDto getPaymentById(Long id) {
-        Payment payment = paymentRepository.findById(id)
+        PaymentDto payment = listQuery.findById(DTO, id)
                 .orElseThrow(() -> new ResourceNotFoundException("Payment not found with id: " + id));
 
         if (!com.blackpearl.security.SecurityUtils.isAdmin() &&
-                !payment.getUser().getEmail().equals(com.blackpearl.security.SecurityUtils.getCurrentUserEmail())) {
+                !payment.getUserId().equals(com.blackpearl.security.SecurityUtils.getCurrentUserId())) {
             throw new org.springframework.security.access.AccessDeniedException(
                     "You are not authorized to view this payment");
         }
 
-        return convertToDto(payment);
+        return payment;
     }
 
     @Transactional
     public PaymentDto createPayment(PaymentDto dto, String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + email));
-
         Payment payment = Payment.builder()
-                .user(user)
+                .user(currentUser.referenceFor(email))
                 .paymentRef(dto.getPaymentRef())
                 .amount(dto.getAmount())
                 .method(dto.getMethod() != null ? dto.getMethod() : Payment.Method.NEFT)
@@ -72,36 +123,40 @@ public class PaymentService {
 
     @Transactional
     public PaymentDto updateStatus(Long id, String status) {
-        Payment payment = paymentRepository.findById(id)
+        // Locked so concurrent status changes cannot both apply the same rollup adjustment.
+        Payment payment = paymentRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Payment not found with id: " + id));
 
-        User admin = userRepository.findByEmail(com.blackpearl.security.SecurityUtils.getCurrentUserEmail())
-                .orElseThrow(() -> new ResourceNotFoundException("Admin user not found"));
-
         Payment.Status newStatus = Payment.Status.valueOf(status.toUpperCase());
-        if (newStatus == Payment.Status.COMPLETED && payment.getStatus() != Payment.Status.COMPLETED) {
-            payment.setApprovedBy(admin);
+        Payment.Status oldStatus = payment.getStatus();
+        if (oldStatus == Payment.Status.COMPLETED && newStatus != Payment.Status.COMPLETED) {
+            revenueRollup.recordReversed(payment);
+        }
+        if (newStatus == Payment.Status.COMPLETED && oldStatus != Payment.Status.COMPLETED) {
+            payment.setApprovedBy(currentUser.currentUserReference());
             payment.setApprovedAt(LocalDateTime.now());
+            revenueRollup.recordCompleted(payment);
         }
 
         payment.setStatus(newStatus);
+        dashboardSnapshots.invalidateAfterCommit();
+        dashboardStream.publishAfterCommit(DashboardEvent.statusChanged(
+                "Payment", payment.getId(), payment.getUser().getId(), newStatus));
         return convertToDto(paymentRepository.save(payment));
     }
 
+    @Transactional(readOnly = true)
     public BigDecimal getMonthlyRevenue() {
-        YearMonth current = YearMonth.now();
-        LocalDateTime start = current.atDay(1).atStartOfDay();
-        LocalDateTime end = current.atEndOfMonth().atTime(23, 59, 59);
-        BigDecimal revenue = paymentRepository.sumCompletedPaymentsBetween(start, end);
-        return revenue != null ? revenue : BigDecimal.ZERO;
+        return revenueRollup.revenueForMonth(YearMonth.now());
     }
 
     public PaymentDto convertToDto(Payment p) {
+        UserIdentity owner = userIdentityCache.get(p.getUser().getId());
         return PaymentDto.builder()
                 .id(p.getId())
-                .userId(p.getUser().getId())
-                .userEmail(p.getUser().getEmail())
-                .userName(p.getUser().getFullName())
+                .userId(owner.id())
+                .userEmail(owner.email())
+                .userName(owner.fullName())
                 .paymentRef(p.getPaymentRef())
                 .amount(p.getAmount())
                 .method(p.getMethod())
@@ -1,62 +1,111 @@
 package com.blackpearl.service;
 
+import com.blackpearl.dto.CursorPage;
+import com.blackpearl.dto.ListFilter;
 import com.blackpearl.dto.ShipOrderDto;
 import com.blackpearl.exception.ResourceNotFoundException;
 import com.blackpearl.model.ShipOrder;
 import com.blackpearl.model.User;
 import com.blackpearl.repository.ShipOrderRepository;
-import com.blackpearl.repository.UserRepository;
+import com.blackpearl.security.CurrentUserResolver;
+import com.blackpearl.service.UserIdentityCache.UserIdentity;
+import jakarta.persistence.criteria.Join;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
-import java.util.stream.Collectors;
+
+import static com.blackpearl.service.StreamingExporter.column;
 
 @Service
 @RequiredArgsConstructor
 public class ShipOrderService {
 
-    private final ShipOrderRepository shipOrderRepository;
-    private final UserRepository userRepository;
+    private static final ListQuery.Projection<ShipOrder, ShipOrderDto> DTO = new ListQuery.Projection<>(
+            ShipOrder.class, ShipOrderDto.class, ShipOrderDto::getId,
+            List.of("id", "userId", "userEmail", "shipType", "tonnage", "material", "specifications",
+                    "expectedDelivery", "status", "adminNotes", "createdAt"),
+            (o, cb) -> {
+                Join<ShipOrder, User> u = o.join("user");
+                return List.of(o.get("id"), u.get("id"), u.get("email"), o.get("shipType"), o.get("tonnage"),
+                        o.get("material"), o.get("specifications"), o.get("expectedDelivery"), o.get("status"),
+                        o.get("adminNotes"), o.get("createdAt"));
+            });
+
+    private static final List<StreamingExporter.Column<ShipOrder>> EXPORT_COLUMNS = List.of(
+            column("id", ShipOrder::getId),
+            column("userId", o -> o.getUser().getId()),
+            column("userEmail", o -> o.getUser().getEmail()),
+            column("shipType", ShipOrder::getShipType),
+            column("tonnage", ShipOrder::getTonnage),
+            column("material", ShipOrder::getMaterial),
+            column("expectedDelivery", ShipOrder::getExpectedDelivery),
+            column("status", ShipOrder::getStatus),
+            column("adminNotes", ShipOrder::getAdminNotes),
+            column("approvedAt", ShipOrder::getApprovedAt),
+            column("createdAt", ShipOrder::getCreatedAt));
 
-    public List<ShipOrderDto> getAllOrders() {
+    private final ShipOrderRepository shipOrderRepository;
+    private final DashboardSnapshotCache dashboardSnapshots;
+    private final DashboardStreamService dashboardStream;
+    private final CurrentUserResolver currentUser;
+    private final ListQuery listQuery;
+    private final StreamingExporter exporter;
+    private final UserIdentityCache userIdentityCache;
+
+    @Transactional(readOnly = true)
+    public CursorPage<ShipOrderDto> getAllOrders(ListFilter filter, String cursor, Integer size) {
         if (com.blackpearl.security.SecurityUtils.isAdmin()) {
-            return shipOrderRepository.findAll().stream()
-                    .map(this::convertToDto)
-                    .collect(Collectors.toList());
+            return listOrders(filter, filter.getUserId(), cursor, size);
         }
-        return getOrdersByUser(com.blackpearl.security.SecurityUtils.getCurrentUserEmail());
+        return getOrdersByUser(com.blackpearl.security.SecurityUtils.getCurrentUserEmail(), filter, cursor, size);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<ShipOrderDto> getOrdersByUser(String email, ListFilter filter, String cursor, Integer size) {
+        return listOrders(filter, currentUser.resolveUserId(email), cursor, size);
+    }
+
+    private CursorPage<ShipOrderDto> listOrders(ListFilter filter, Long userId, String cursor, Integer size) {
+        return listQuery.page(DTO, Specification.allOf(
+                ListQuery.ownedBy(userId),
+                ListQuery.enumEqual("status", ShipOrder.Status.class, filter.getStatus()),
+                listQuery.createdBetween(ShipOrder.class, filter.getFrom(), filter.getTo()),
+                ListQuery.between("tonnage", filter.getMin(), filter.getMax())),
+                filter, cursor, size);
     }
 
-    public List<ShipOrderDto> getOrdersByUser(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + email));
-        return shipOrderRepository.findByUserId(user.getId()).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    /** The whole history for admins, the caller's own rows otherwise, streamed as CSV or NDJSON. */
+    public ResponseEntity<StreamingResponseBody> exportOrders(String format) {
+        if (com.blackpearl.security.SecurityUtils.isAdmin()) {
+            return exporter.export("ship-orders", format, shipOrderRepository::streamAllWithUser, EXPORT_COLUMNS);
+        }
+        Long userId = currentUser.resolveUserId(com.blackpearl.security.SecurityUtils.getCurrentUserEmail());
+        return exporter.export("ship-orders", format, () -> shipOrderRepository.streamByUserIdWithUser(userId), EXPORT_COLUMNS);
     }
 
+    @Transactional(readOnly = true)
     public ShipOrderDto getOrderById(Long id) {
-        ShipOrder order = shipOrderRepository.findById(id)
+        ShipOrderDto order = listQuery.findById(DTO, id)
                 .orElseThrow(() -> new ResourceNotFoundException("Ship order not found with id: " + id));
 
         if (!com.blackpearl.security.SecurityUtils.isAdmin() &&
-                !order.getUser().getEmail().equals(com.blackpearl.security.SecurityUtils.getCurrentUserEmail())) {
+                !order.getUserId().equals(com.blackpearl.security.SecurityUtils.getCurrentUserId())) {
             throw new org.springframework.security.access.AccessDeniedException(
                     "You are not authorized to view this order");
         }
 
-        return convertToDto(order);
+        return order;
     }
 
     @Transactional
     public ShipOrderDto createOrder(ShipOrderDto dto, String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + email));
-
         ShipOrder order = ShipOrder.builder()
-                .user(user)
+                .user(currentUser.referenceFor(email))
                 .shipType(dto.getShipType())
                 .tonnage(dto.getTonnage())
                 .material(dto.getMaterial())
@@ -65,6 +114,7 @@ public class ShipOrderService {
                 .status(ShipOrder.Status.PENDING)
                 .build();
 
+        dashboardSnapshots.invalidateAfterCommit();
         return convertToDto(shipOrderRepository.save(order));
     }
 
@@ -73,12 +123,11 @@ public class ShipOrderService {
         ShipOrder order = shipOrderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Ship order not found with id: " + id));
 
-        User admin = userRepository.findByEmail(com.blackpearl.security.SecurityUtils.getCurrentUserEmail())
-                .orElseThrow(() -> new ResourceNotFoundException("Admin user not found"));
-
         order.setStatus(ShipOrder.Status.APPROVED);
-        order.setApprovedBy(admin);
+        order.setApprovedBy(currentUser.currentUserReference());
         order.setApprovedAt(java.time.LocalDateTime.now());
+        dashboardSnapshots.invalidateAfterCommit();
+        publishStatus(order);
 
         return convertToDto(shipOrderRepository.save(order));
     }
@@ -88,6 +137,8 @@ public class ShipOrderService {
         ShipOrder order = shipOrderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Ship order not found with id: " + id));
         order.setStatus(ShipOrder.Status.REJECTED);
+        dashboardSnapshots.invalidateAfterCommit();
+        publishStatus(order);
         return convertToDto(shipOrderRepository.save(order));
     }
 
@@ -97,13 +148,20 @@ public class ShipOrderService {
             throw new ResourceNotFoundException("Ship order not found with id: " + id);
         }
         shipOrderRepository.deleteById(id);
+        dashboardSnapshots.invalidateAfterCommit();
+    }
+
+    private void publishStatus(ShipOrder order) {
+        dashboardStream.publishAfterCommit(DashboardEvent.statusChanged(
+                "ShipOrder", order.getId(), order.getUser().getId(), order.getStatus()));
     }
 
     public ShipOrderDto convertToDto(ShipOrder o) {
+        UserIdentity owner = userIdentityCache.get(o.getUser().getId());
         return ShipOrderDto.builder()
                 .id(o.getId())
-                .userId(o.getUser().getId())
-                .userEmail(o.getUser().getEmail())
+                .userId(owner.id())
+                .userEmail(owner.email())
                 .shipType(o.getShipType())
                 .tonnage(o.getTonnage())
                 .material(o.getMaterial())
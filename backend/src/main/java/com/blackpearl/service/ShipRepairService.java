@@ -1,46 +1,64 @@
 package com.blackpearl.service;
 
+import com.blackpearl.dto.CursorPage;
+import com.blackpearl.dto.ListFilter;
 import com.blackpearl.dto.ShipRepairDto;
 import com.blackpearl.exception.ResourceNotFoundException;
 import com.blackpearl.model.ShipRepair;
 import com.blackpearl.model.User;
 import com.blackpearl.repository.ShipRepairRepository;
-import com.blackpearl.repository.UserRepository;
+import com.blackpearl.security.CurrentUserResolver;
+import com.blackpearl.service.UserIdentityCache.UserIdentity;
+import jakarta.persistence.criteria.Join;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ShipRepairService {
 
+    private static final ListQuery.Projection<ShipRepair, ShipRepairDto> DTO = new ListQuery.Projection<>(
+            ShipRepair.class, ShipRepairDto.class, ShipRepairDto::getId,
+            List.of("id", "userId", "userEmail", "vesselName", "issueType", "description", "priority",
+                    "status", "technicianNotes"),
+            (r, cb) -> {
+                Join<ShipRepair, User> u = r.join("user");
+                return List.of(r.get("id"), u.get("id"), u.get("email"), r.get("vesselName"), r.get("issueType"),
+                        r.get("description"), r.get("priority"), r.get("status"), r.get("technicianNotes"));
+            });
+
     private final ShipRepairRepository shipRepairRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUser;
+    private final ListQuery listQuery;
+    private final UserIdentityCache userIdentityCache;
+
+    @Transactional(readOnly = true)
+    public CursorPage<ShipRepairDto> getAllRepairs(ListFilter filter, String cursor, Integer size) {
+        return listRepairs(filter, filter.getUserId(), cursor, size);
+    }
 
-    public List<ShipRepairDto> getAllRepairs() {
-        return shipRepairRepository.findAll().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<ShipRepairDto> getRepairsByUser(String email, ListFilter filter, String cursor, Integer size) {
+        return listRepairs(filter, currentUser.resolveUserId(email), cursor, size);
     }
 
-    public List<ShipRepairDto> getRepairsByUser(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + email));
-        return shipRepairRepository.findByUserId(user.getId()).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    private CursorPage<ShipRepairDto> listRepairs(ListFilter filter, Long userId, String cursor, Integer size) {
+        return listQuery.page(DTO, Specification.allOf(
+                ListQuery.ownedBy(userId),
+                ListQuery.enumEqual("status", ShipRepair.Status.class, filter.getStatus()),
+                ListQuery.enumEqual("priority", ShipRepair.Priority.class, filter.getPriority()),
+                listQuery.createdBetween(ShipRepair.class, filter.getFrom(), filter.getTo())),
+                filter, cursor, size);
     }
 
     @Transactional
     public ShipRepairDto createRepair(ShipRepairDto dto, String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + email));
-
         ShipRepair repair = ShipRepair.builder()
-                .user(user)
+                .user(currentUser.referenceFor(email))
                 .vesselName(dto.getVesselName())
                 .issueType(dto.getIssueType())
                 .description(dto.getDescription())
@@ -62,10 +80,11 @@ public class ShipRepairService {
     }
 
     public ShipRepairDto convertToDto(ShipRepair r) {
+        UserIdentity owner = userIdentityCache.get(r.getUser().getId());
         return ShipRepairDto.builder()
                 .id(r.getId())
-                .userId(r.getUser().getId())
-                .userEmail(r.getUser().getEmail())
+                .userId(owner.id())
+                .userEmail(owner.email())
                 .vesselName(r.getVesselName())
                 .issueType(r.getIssueType())
                 .description(r.getDescription())
@@ -1,5 +1,7 @@
 package com.blackpearl.service;
 
+import com.blackpearl.dto.CursorPage;
+import com.blackpearl.dto.ListFilter;
 import com.blackpearl.dto.StockExportDto;
 import com.blackpearl.exception.ResourceNotFoundException;
 import com.blackpearl.model.Inventory;
@@ -7,45 +9,92 @@ import com.blackpearl.model.StockExport;
 import com.blackpearl.model.User;
 import com.blackpearl.repository.InventoryRepository;
 import com.blackpearl.repository.StockExportRepository;
-import com.blackpearl.repository.UserRepository;
+import com.blackpearl.security.CurrentUserResolver;
+import com.blackpearl.service.UserIdentityCache.UserIdentity;
+import jakarta.persistence.criteria.Join;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+
+import static com.blackpearl.service.StreamingExporter.column;
 
 @Service
 @RequiredArgsConstructor
 public class StockExportService {
 
+    private static final ListQuery.Projection<StockExport, StockExportDto> DTO = new ListQuery.Projection<>(
+            StockExport.class, StockExportDto.class, StockExportDto::getId,
+            List.of("id", "userId", "userEmail", "inventoryId", "itemName", "quantity", "unit", "purpose",
+                    "deliveryAddress", "status"),
+            (e, cb) -> {
+                Join<StockExport, User> u = e.join("user");
+                return List.of(e.get("id"), u.get("id"), u.get("email"), e.get("inventory").get("id"),
+                        e.get("itemName"), e.get("quantity"), e.get("unit"), e.get("purpose"),
+                        e.get("deliveryAddress"), e.get("status"));
+            });
+
+    private static final List<StreamingExporter.Column<StockExport>> EXPORT_COLUMNS = List.of(
+            column("id", StockExport::getId),
+            column("userId", e -> e.getUser().getId()),
+            column("userEmail", e -> e.getUser().getEmail()),
+            // The id of an uninitialized proxy is read without loading the inventory row.
+            column("inventoryId", e -> e.getInventory() != null ? e.getInventory().getId() : null),
+            column("itemName", StockExport::getItemName),
+            column("quantity", StockExport::getQuantity),
+            column("unit", StockExport::getUnit),
+            column("purpose", StockExport::getPurpose),
+            column("deliveryAddress", StockExport::getDeliveryAddress),
+            column("status", StockExport::getStatus),
+            column("approvedAt", StockExport::getApprovedAt),
+            column("createdAt", StockExport::getCreatedAt));
+
     private final StockExportRepository stockExportRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUser;
+    private final ListQuery listQuery;
+    private final StreamingExporter exporter;
+    private final UserIdentityCache userIdentityCache;
     private final InventoryRepository inventoryRepository;
+    private final DashboardStreamService dashboardStream;
 
-    public List<StockExportDto> getAllExports() {
+    @Transactional(readOnly = true)
+    public CursorPage<StockExportDto> getAllExports(ListFilter filter, String cursor, Integer size) {
         if (com.blackpearl.security.SecurityUtils.isAdmin()) {
-            return stockExportRepository.findAll().stream()
-                    .map(this::convertToDto)
-                    .collect(Collectors.toList());
+            return listExports(filter, filter.getUserId(), cursor, size);
         }
-        return getExportsByUser(com.blackpearl.security.SecurityUtils.getCurrentUserEmail());
+        return getExportsByUser(com.blackpearl.security.SecurityUtils.getCurrentUserEmail(), filter, cursor, size);
     }
 
-    public List<StockExportDto> getExportsByUser(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + email));
-        return stockExportRepository.findByUserId(user.getId()).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<StockExportDto> getExportsByUser(String email, ListFilter filter, String cursor, Integer size) {
+        return listExports(filter, currentUser.resolveUserId(email), cursor, size);
+    }
+
+    private CursorPage<StockExportDto> listExports(ListFilter filter, Long userId, String cursor, Integer size) {
+        return listQuery.page(DTO, Specification.allOf(
+                ListQuery.ownedBy(userId),
+                ListQuery.enumEqual("status", StockExport.Status.class, filter.getStatus()),
+                listQuery.createdBetween(StockExport.class, filter.getFrom(), filter.getTo()),
+                ListQuery.between("quantity", filter.getMin(), filter.getMax())),
+                filter, cursor, size);
+    }
+
+    /** The whole history for admins, the caller's own rows otherwise, streamed as CSV or NDJSON. */
+    public ResponseEntity<StreamingResponseBody> exportStockExports(String format) {
+        if (com.blackpearl.security.SecurityUtils.isAdmin()) {
+            return exporter.export("stock-exports", format, stockExportRepository::streamAllWithUser, EXPORT_COLUMNS);
+        }
+        Long userId = currentUser.resolveUserId(com.blackpearl.security.SecurityUtils.getCurrentUserEmail());
+        return exporter.export("stock-exports", format, () -> stockExportRepository.streamByUserIdWithUser(userId), EXPORT_COLUMNS);
     }
 
     @Transactional
     public StockExportDto createExport(StockExportDto dto, String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + email));
-
         Inventory inventory = null;
         if (dto.getInventoryId() != null) {
             inventory = inventoryRepository.findById(dto.getInventoryId())
@@ -53,7 +102,7 @@ public class StockExportService {
         }
 
         StockExport export = StockExport.builder()
-                .user(user)
+                .user(currentUser.referenceFor(email))
                 .inventory(inventory)
                 .itemName(dto.getItemName())
                 .quantity(dto.getQuantity())
@@ -71,9 +120,6 @@ public class StockExportService {
         StockExport export = stockExportRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Stock export not found with id: " + id));
 
-        User admin = userRepository.findByEmail(com.blackpearl.security.SecurityUtils.getCurrentUserEmail())
-                .orElseThrow(() -> new ResourceNotFoundException("Admin user not found"));
-
         if (status == StockExport.Status.APPROVED && export.getStatus() != StockExport.Status.APPROVED) {
             if (export.getInventory() != null) {
                 Inventory inv = export.getInventory();
@@ -87,19 +133,22 @@ public class StockExportService {
                     inv.setStatus(Inventory.Status.LOW_STOCK);
                 inventoryRepository.save(inv);
             }
-            export.setApprovedBy(admin);
+            export.setApprovedBy(currentUser.currentUserReference());
             export.setApprovedAt(LocalDateTime.now());
         }
 
         export.setStatus(status);
+        dashboardStream.publishAfterCommit(DashboardEvent.statusChanged(
+                "StockExport", export.getId(), export.getUser().getId(), status));
         return convertToDto(stockExportRepository.save(export));
     }
 
     public StockExportDto convertToDto(StockExport e) {
+        UserIdentity owner = userIdentityCache.get(e.getUser().getId());
         return StockExportDto.builder()
                 .id(e.getId())
-                .userId(e.getUser().getId())
-                .userEmail(e.getUser().getEmail())
+                .userId(owner.id())
+                .userEmail(owner.email())
                 .inventoryId(e.getInventory() != null ? e.getInventory().getId() : null)
                 .itemName(e.getItemName())
                 .quantity(e.getQuantity())
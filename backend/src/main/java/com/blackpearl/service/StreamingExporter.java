@@ -0,0 +1,174 @@
+package com.blackpearl.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes a whole table as CSV or NDJSON straight from a repository {@link Stream}, one row at a
+ * time, so an export costs the same heap whether it holds a hundred rows or a million. Rows are
+ * read in a read-only transaction on the response thread, and the persistence context is
+ * cleared every few hundred rows so loaded entities do not accumulate.
+ * <p>
+ * The streamed queries must fetch everything the columns read: while a MySQL result set is
+ * streaming, its connection cannot run any other statement.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StreamingExporter {
+
+    public enum Format {
+        CSV("csv", new MediaType("text", "csv", StandardCharsets.UTF_8)),
+        NDJSON("ndjson", MediaType.parseMediaType("application/x-ndjson"));
+
+        private final String extension;
+        private final MediaType mediaType;
+
+        Format(String extension, MediaType mediaType) {
+            this.extension = extension;
+            this.mediaType = mediaType;
+        }
+    }
+
+    /** One exported field: its CSV header / JSON name and how to read it from a row. */
+    public record Column<E>(String name, Function<E, ?> value) {
+    }
+
+    public static <E> Column<E> column(String name, Function<E, ?> value) {
+        return new Column<>(name, value);
+    }
+
+    @Value("${export.clear-every:500}")
+    private int clearEvery;
+
+    @Value("${export.buffer-bytes:65536}")
+    private int bufferBytes;
+
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private TransactionTemplate readOnly;
+
+    @PostConstruct
+    void init() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    /**
+     * Builds the download response. {@code rows} is only opened once the response starts
+     * streaming, so anything depending on the caller (its user id, its role) must be resolved
+     * before this is called.
+     *
+     * @throws IllegalArgumentException if the format is not supported
+     */
+    public <E> ResponseEntity<StreamingResponseBody> export(String name, String format,
+            Supplier<Stream<E>> rows, List<Column<E>> columns) {
+        Format fmt = format == null ? Format.CSV : Format.valueOf(format.toUpperCase());
+        String filename = name + "-" + LocalDate.now() + "." + fmt.extension;
+
+        StreamingResponseBody body = out -> readOnly.executeWithoutResult(status -> {
+            try (Stream<E> stream = rows.get()) {
+                long written = write(fmt, stream, columns, out);
+                log.debug("Exported {} {} rows as {}", written, name, fmt);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(fmt.mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    private <E> long write(Format format, Stream<E> rows, List<Column<E>> columns, OutputStream out)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), bufferBytes);
+        JsonGenerator json = null;
+        if (format == Format.CSV) {
+            writeCsvRow(writer, columns.stream().map(Column::name).toList());
+        } else {
+            json = objectMapper.getFactory().createGenerator(writer);
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.setRootValueSeparator(null);
+        }
+
+        long count = 0;
+        Iterator<E> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            E row = iterator.next();
+            if (json == null) {
+                writeCsvRow(writer, columns.stream().map(c -> (Object) c.value().apply(row)).toList());
+            } else {
+                json.writeStartObject();
+                for (Column<E> column : columns) {
+                    json.writeFieldName(column.name());
+                    json.writeObject(column.value().apply(row));
+                }
+                json.writeEndObject();
+                json.writeRaw('\n');
+            }
+            if (++count % clearEvery == 0) {
+                entityManager.clear();
+            }
+        }
+        if (json != null) {
+            json.flush();
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static void writeCsvRow(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(values.get(i)));
+        }
+        writer.write("\r\n");
+    }
+
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        // Free text starting like a formula would be evaluated by spreadsheet applications.
+        if (value instanceof String && !text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+}
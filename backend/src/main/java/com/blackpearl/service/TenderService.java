@@ -1,38 +1,59 @@
 package com.blackpearl.service;
 
+import com.blackpearl.dto.CursorPage;
+import com.blackpearl.dto.ListFilter;
 import com.blackpearl.dto.TenderDto;
 import com.blackpearl.exception.ResourceNotFoundException;
 import com.blackpearl.model.Tender;
 import com.blackpearl.repository.TenderRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class TenderService {
 
+    private static final ListQuery.Projection<Tender, TenderDto> DTO = new ListQuery.Projection<>(
+            Tender.class, TenderDto.class, TenderDto::getId,
+            List.of("id", "tenderNo", "title", "description", "category", "value", "publishedDate",
+                    "closingDate", "status"),
+            (t, cb) -> List.of(
+                    t.get("id"), t.get("tenderNo"), t.get("title"), t.get("description"), t.get("category"),
+                    t.get("value"), t.get("publishedDate"), t.get("closingDate"), t.get("status")));
+
     private final TenderRepository tenderRepository;
+    private final DashboardSnapshotCache dashboardSnapshots;
+    private final ListQuery listQuery;
 
-    public List<TenderDto> getAllTenders() {
+    @Transactional(readOnly = true)
+    public CursorPage<TenderDto> getAllTenders(ListFilter filter, String cursor, Integer size) {
         if (com.blackpearl.security.SecurityUtils.isAdmin()) {
-            return tenderRepository.findAll().stream()
-                    .map(this::convertToDto)
-                    .collect(Collectors.toList());
+            return listQuery.page(DTO, Specification.allOf(
+                    ListQuery.enumEqual("status", Tender.Status.class, filter.getStatus()),
+                    ListQuery.equal("category", filter.getCategory()),
+                    ListQuery.between("value", filter.getMin(), filter.getMax())),
+                    filter, cursor, size);
         }
-        return getOpenTenders();
+        return getOpenTenders(filter, cursor, size);
     }
 
-    public List<TenderDto> getOpenTenders() {
-        return tenderRepository.findByStatus(Tender.Status.OPEN).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<TenderDto> getOpenTenders(String cursor, Integer size) {
+        return getOpenTenders(new ListFilter(), cursor, size);
+    }
+
+    /** Open tenders; of the filter only {@code sort} and {@code fields} apply. */
+    @Transactional(readOnly = true)
+    public CursorPage<TenderDto> getOpenTenders(ListFilter filter, String cursor, Integer size) {
+        return listQuery.page(DTO, ListQuery.equal("status", Tender.Status.OPEN), filter, cursor, size);
     }
 
+    @Transactional(readOnly = true)
     public TenderDto getTenderById(Long id) {
         return tenderRepository.findById(id)
                 .map(this::convertToDto)
@@ -51,6 +72,7 @@ public class TenderService {
                 .closingDate(dto.getClosingDate())
                 .status(Tender.Status.OPEN)
                 .build();
+        dashboardSnapshots.invalidateAfterCommit();
         return convertToDto(tenderRepository.save(tender));
     }
 
@@ -68,6 +90,7 @@ public class TenderService {
             tender.setValue(dto.getValue());
         if (dto.getClosingDate() != null)
             tender.setClosingDate(dto.getClosingDate());
+        dashboardSnapshots.invalidateAfterCommit();
         return convertToDto(tenderRepository.save(tender));
     }
 
@@ -76,6 +99,7 @@ public class TenderService {
         Tender tender = tenderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Tender not found with id: " + id));
         tender.setStatus(Tender.Status.CLOSED);
+        dashboardSnapshots.invalidateAfterCommit();
         return convertToDto(tenderRepository.save(tender));
     }
 
@@ -85,6 +109,7 @@ public class TenderService {
             throw new ResourceNotFoundException("Tender not found with id: " + id);
         }
         tenderRepository.deleteById(id);
+        dashboardSnapshots.invalidateAfterCommit();
     }
 
     public TenderDto convertToDto(Tender tender) {
@@ -0,0 +1,91 @@
+package com.blackpearl.service;
+
+import com.blackpearl.security.CustomUserDetails;
+import com.blackpearl.security.JwtUtil;
+import com.blackpearl.security.TokenRevocationList;
+import com.blackpearl.security.TokenVersionRegistry;
+import com.blackpearl.service.UserIdentityCache.UserIdentity;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Issues access/refresh token pairs, rotates refresh tokens and revokes tokens on logout.
+ */
+@Service
+@RequiredArgsConstructor
+public class TokenService {
+
+    private final JwtUtil jwtUtil;
+    private final TokenRevocationList revocationList;
+    private final TokenVersionRegistry tokenVersions;
+    private final UserIdentityCache userIdentityCache;
+
+    public Map<String, Object> issueTokens(CustomUserDetails user) {
+        Map<String, Object> tokens = new LinkedHashMap<>();
+        tokens.put("token", jwtUtil.generateToken(user));
+        tokens.put("refreshToken", jwtUtil.generateRefreshToken(user));
+        tokens.put("expiresIn", jwtUtil.getExpiration() / 1000);
+        return tokens;
+    }
+
+    /**
+     * Exchanges a refresh token for a new token pair. The presented refresh token is revoked, so
+     * each one can be used once; presenting an already-used one revokes every token of the user.
+     * Revocations and token versions are kept in memory, so refresh tokens issued before this
+     * instance started are refused: their logout or rotation may have been forgotten. Their
+     * users log in again.
+     *
+     * @throws BadCredentialsException if the token is invalid, revoked, issued before startup
+     *                                  or the user is inactive
+     */
+    public Map<String, Object> refresh(String refreshToken) {
+        Claims claims = parse(refreshToken);
+        if (claims == null || !JwtUtil.TYPE_REFRESH.equals(jwtUtil.getType(claims))) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        if (jwtUtil.isIssuedBeforeStartup(claims)) {
+            throw new BadCredentialsException("Refresh token predates a server restart, please log in again");
+        }
+        if (!jwtUtil.isVersionCurrent(claims)) {
+            throw new BadCredentialsException("Refresh token has been revoked");
+        }
+
+        Long userId = jwtUtil.getUserId(claims);
+        UserIdentity user = userId != null ? userIdentityCache.find(userId).orElse(null) : null;
+        if (user == null || !user.active()) {
+            throw new BadCredentialsException("User account is inactive or no longer exists");
+        }
+
+        if (!revocationList.revokeIfAbsent(claims.getId(), claims.getExpiration().getTime())) {
+            // A refresh token was replayed after rotation: assume it leaked and cut off the user.
+            tokenVersions.bump(userId);
+            throw new BadCredentialsException("Refresh token has already been used");
+        }
+
+        return issueTokens(new CustomUserDetails(user.id(), user.email(), user.role(), user.department()));
+    }
+
+    /** Revokes each given token until it expires. Invalid or missing tokens are ignored. */
+    public void revoke(String... tokens) {
+        for (String token : tokens) {
+            Claims claims = token != null ? parse(token) : null;
+            if (claims != null && claims.getId() != null) {
+                revocationList.revoke(claims.getId(), claims.getExpiration().getTime());
+            }
+        }
+    }
+
+    private Claims parse(String token) {
+        try {
+            return jwtUtil.validateToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.blackpearl.service;
+
+import com.blackpearl.exception.ResourceNotFoundException;
+import com.blackpearl.model.User;
+import com.blackpearl.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded LRU cache of user identity rows (id, email, name, role, department, active) used
+ * wherever services need more than the id carried by the principal. Holds immutable snapshots,
+ * never managed entities. {@link UserService} invalidates entries on every mutation.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserIdentityCache {
+
+    public record UserIdentity(Long id, String email, String fullName, User.Role role,
+            User.Department department, boolean active) {
+
+        static UserIdentity of(User user) {
+            return new UserIdentity(user.getId(), user.getEmail(), user.getFullName(), user.getRole(),
+                    user.getDepartment(), user.isActive());
+        }
+    }
+
+    private final UserRepository userRepository;
+
+    @Value("${user-identity-cache.max-size:5000}")
+    private int maxSize;
+
+    private LinkedHashMap<Long, UserIdentity> byId;
+    private final Map<String, Long> idByEmail = new HashMap<>();
+
+    @PostConstruct
+    void init() {
+        byId = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, UserIdentity> eldest) {
+                if (size() > maxSize) {
+                    idByEmail.remove(eldest.getValue().email());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public UserIdentity get(Long id) {
+        return find(id).orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+    }
+
+    public Optional<UserIdentity> find(Long id) {
+        synchronized (this) {
+            UserIdentity cached = byId.get(id);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+        }
+        return userRepository.findById(id).map(this::store);
+    }
+
+    public UserIdentity getByEmail(String email) {
+        synchronized (this) {
+            Long id = idByEmail.get(email);
+            UserIdentity cached = id != null ? byId.get(id) : null;
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return userRepository.findByEmail(email)
+                .map(this::store)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + email));
+    }
+
+    public synchronized void invalidate(Long id) {
+        UserIdentity removed = byId.remove(id);
+        if (removed != null) {
+            idByEmail.remove(removed.email());
+        }
+    }
+
+    /**
+     * Drops the entry now and again after commit, so a concurrent reader cannot re-populate
+     * it with the pre-commit row.
+     */
+    public void invalidateAfterCommit(Long id) {
+        invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(id);
+                }
+            });
+        }
+    }
+
+    private synchronized UserIdentity store(User user) {
+        UserIdentity identity = UserIdentity.of(user);
+        byId.put(identity.id(), identity);
+        idByEmail.put(identity.email(), identity.id());
+        return identity;
+    }
+}
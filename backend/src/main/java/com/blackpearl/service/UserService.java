@@ -1,28 +1,32 @@
 package com.blackpearl.service;
 
+import com.blackpearl.dto.CursorPage;
 import com.blackpearl.dto.UserDto;
 import com.blackpearl.exception.ResourceNotFoundException;
 import com.blackpearl.model.User;
 import com.blackpearl.repository.UserRepository;
+import com.blackpearl.security.TokenVersionRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
     private final UserRepository userRepository;
+    private final TokenVersionRegistry tokenVersions;
+    private final UserIdentityCache userIdentityCache;
+    private final KeysetPaging keysetPaging;
 
-    public List<UserDto> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<UserDto> getAllUsers(String cursor, Integer size) {
+        KeysetPaging.Keyset keyset = keysetPaging.resolve(cursor, size);
+        return keysetPaging.page(userRepository.findByIdLessThanOrderByIdDesc(keyset.before(), keyset.limit()),
+                keyset, User::getId, this::convertToDto);
     }
 
+    @Transactional(readOnly = true)
     public UserDto getUserById(Long id) {
         return userRepository.findById(id)
                 .map(this::convertToDto)
@@ -45,6 +49,9 @@ public class UserService {
         if (userDto.getRole() != null)
             user.setRole(userDto.getRole());
 
+        // Role and department are signed into issued tokens; revoke them.
+        tokenVersions.bumpAfterCommit(id);
+        userIdentityCache.invalidateAfterCommit(id);
         return convertToDto(userRepository.save(user));
     }
 
@@ -54,6 +61,7 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
         user.setActive(true);
         userRepository.save(user);
+        userIdentityCache.invalidateAfterCommit(id);
     }
 
     @Transactional
@@ -62,6 +70,8 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
         user.setActive(false);
         userRepository.save(user);
+        tokenVersions.bumpAfterCommit(id);
+        userIdentityCache.invalidateAfterCommit(id);
     }
 
     @Transactional
@@ -70,6 +80,8 @@ public class UserService {
             throw new ResourceNotFoundException("User not found with id: " + id);
         }
         userRepository.deleteById(id);
+        tokenVersions.bumpAfterCommit(id);
+        userIdentityCache.invalidateAfterCommit(id);
     }
 
     public UserDto convertToDto(User user) {
@@ -9,6 +9,7 @@ USE blackpearl_db;
 -- ── Users ─────────────────────────────────────────────────
 CREATE TABLE IF NOT EXISTS app_users (
     id           BIGINT AUTO_INCREMENT PRIMARY KEY,
+    version      BIGINT NOT NULL DEFAULT 0,
     first_name   VARCHAR(100) NOT NULL,
     last_name    VARCHAR(100) NOT NULL,
     email        VARCHAR(255) NOT NULL UNIQUE,
@@ -24,6 +25,7 @@ CREATE TABLE IF NOT EXISTS app_users (
 -- ── Tenders ───────────────────────────────────────────────
 CREATE TABLE IF NOT EXISTS tenders (
     id             BIGINT AUTO_INCREMENT PRIMARY KEY,
+    version        BIGINT NOT NULL DEFAULT 0,
     tender_no      VARCHAR(50) NOT NULL UNIQUE,
     title          VARCHAR(255) NOT NULL,
     description    TEXT,
@@ -32,12 +34,17 @@ CREATE TABLE IF NOT EXISTS tenders (
     published_date DATE,
     closing_date   DATE,
     status         ENUM('OPEN','CLOSING_SOON','CLOSED','AWARDED') DEFAULT 'OPEN',
-    created_at     DATETIME
+    created_at     DATETIME,
+    -- Filter indexes: InnoDB appends the primary key to every secondary index, so an
+    -- equality filter followed by the keyset seek on id is a single index range scan.
+    INDEX idx_tenders_status (status),
+    INDEX idx_tenders_category_status (category, status)
 );
 
 -- ── Ship Orders ───────────────────────────────────────────
 CREATE TABLE IF NOT EXISTS ship_orders (
     id                BIGINT AUTO_INCREMENT PRIMARY KEY,
+    version           BIGINT NOT NULL DEFAULT 0,
     user_id           BIGINT NOT NULL,
     ship_type         VARCHAR(100) NOT NULL,
     tonnage           INT,
@@ -48,12 +55,19 @@ CREATE TABLE IF NOT EXISTS ship_orders (
     admin_notes       TEXT,
     created_at        DATETIME,
     updated_at        DATETIME,
-    FOREIGN KEY (user_id) REFERENCES app_users(id) ON DELETE CASCADE
+    FOREIGN KEY (user_id) REFERENCES app_users(id) ON DELETE CASCADE,
+    -- (user_id) alone, i.e. (user_id, id), serves the unfiltered /my page in id order; without
+    -- it the foreign key would settle for (user_id, status) and the page would be sorted.
+    INDEX idx_ship_orders_user (user_id),
+    INDEX idx_ship_orders_user_status (user_id, status),
+    INDEX idx_ship_orders_status (status),
+    INDEX idx_ship_orders_created_at (created_at)
 );
 
 -- ── Ship Repairs ──────────────────────────────────────────
 CREATE TABLE IF NOT EXISTS ship_repairs (
     id               BIGINT AUTO_INCREMENT PRIMARY KEY,
+    version          BIGINT NOT NULL DEFAULT 0,
     user_id          BIGINT NOT NULL,
     vessel_name      VARCHAR(150) NOT NULL,
     issue_type       VARCHAR(100),
@@ -63,12 +77,18 @@ CREATE TABLE IF NOT EXISTS ship_repairs (
     technician_notes TEXT,
     created_at       DATETIME,
     updated_at       DATETIME,
-    FOREIGN KEY (user_id) REFERENCES app_users(id) ON DELETE CASCADE
+    FOREIGN KEY (user_id) REFERENCES app_users(id) ON DELETE CASCADE,
+    INDEX idx_ship_repairs_user (user_id),
+    INDEX idx_ship_repairs_user_status (user_id, status),
+    INDEX idx_ship_repairs_status_priority (status, priority),
+    INDEX idx_ship_repairs_priority (priority),
+    INDEX idx_ship_repairs_created_at (created_at)
 );
 
 -- ── Inventory ─────────────────────────────────────────────
 CREATE TABLE IF NOT EXISTS inventory (
     id          BIGINT AUTO_INCREMENT PRIMARY KEY,
+    version     BIGINT NOT NULL DEFAULT 0,
     item_code   VARCHAR(50) NOT NULL UNIQUE,
     name        VARCHAR(200) NOT NULL,
     category    VARCHAR(100),
@@ -77,12 +97,15 @@ CREATE TABLE IF NOT EXISTS inventory (
     unit_price  DECIMAL(15,2),
     status      ENUM('AVAILABLE','LOW_STOCK','OUT_OF_STOCK') DEFAULT 'AVAILABLE',
     created_at  DATETIME,
-    updated_at  DATETIME
+    updated_at  DATETIME,
+    INDEX idx_inventory_status (status),
+    INDEX idx_inventory_category_status (category, status)
 );
 
 -- ── Stock Exports ─────────────────────────────────────────
 CREATE TABLE IF NOT EXISTS stock_exports (
     id               BIGINT AUTO_INCREMENT PRIMARY KEY,
+    version          BIGINT NOT NULL DEFAULT 0,
     user_id          BIGINT NOT NULL,
     inventory_id     BIGINT,
     item_name        VARCHAR(200),
@@ -94,21 +117,45 @@ CREATE TABLE IF NOT EXISTS stock_exports (
     created_at       DATETIME,
     updated_at       DATETIME,
     FOREIGN KEY (user_id) REFERENCES app_users(id) ON DELETE CASCADE,
-    FOREIGN KEY (inventory_id) REFERENCES inventory(id) ON DELETE SET NULL
+    FOREIGN KEY (inventory_id) REFERENCES inventory(id) ON DELETE SET NULL,
+    INDEX idx_stock_exports_user (user_id),
+    INDEX idx_stock_exports_user_status (user_id, status),
+    INDEX idx_stock_exports_status (status),
+    INDEX idx_stock_exports_created_at (created_at)
 );
 
 -- ── Notifications ─────────────────────────────────────────
 CREATE TABLE IF NOT EXISTS notifications (
     id         BIGINT AUTO_INCREMENT PRIMARY KEY,
+    version    BIGINT NOT NULL DEFAULT 0,
     user_id    BIGINT,  -- NULL = broadcast to all
     title      VARCHAR(255) NOT NULL,
     message    TEXT NOT NULL,
     type       ENUM('INFO','SUCCESS','WARNING','ALERT') DEFAULT 'INFO',
-    is_read    BOOLEAN DEFAULT FALSE,
     created_at DATETIME,
+    FOREIGN KEY (user_id) REFERENCES app_users(id) ON DELETE CASCADE,
+    -- Effectively (user_id, id): the inbox reads own and broadcast notifications as two ranges of it.
+    INDEX idx_notifications_user (user_id)
+);
+
+-- ── Notification Read State ───────────────────────────────
+-- Per user: notifications up to read_through_id are read, later ones when they have a receipt.
+CREATE TABLE IF NOT EXISTS notification_read_state (
+    user_id         BIGINT PRIMARY KEY,
+    read_through_id BIGINT NOT NULL DEFAULT 0,
+    unread_count    BIGINT NOT NULL DEFAULT 0,
     FOREIGN KEY (user_id) REFERENCES app_users(id) ON DELETE CASCADE
 );
 
+CREATE TABLE IF NOT EXISTS notification_receipts (
+    user_id         BIGINT NOT NULL,
+    notification_id BIGINT NOT NULL,
+    PRIMARY KEY (user_id, notification_id),
+    INDEX idx_notification_receipts_notification (notification_id),
+    FOREIGN KEY (user_id) REFERENCES app_users(id) ON DELETE CASCADE,
+    FOREIGN KEY (notification_id) REFERENCES notifications(id) ON DELETE CASCADE
+);
+
 -- ── Seed Data ─────────────────────────────────────────────
 -- Default admin user (password: admin123 – BCrypt encoded)
 INSERT IGNORE INTO app_users (first_name, last_name, email, password, role, active, created_at)
@@ -142,6 +189,7 @@ VALUES
 -- ── Payments ───────────────────────────────────────────────
 CREATE TABLE IF NOT EXISTS payments (
     id          BIGINT AUTO_INCREMENT PRIMARY KEY,
+    version     BIGINT NOT NULL DEFAULT 0,
     user_id     BIGINT NOT NULL,
     payment_ref VARCHAR(100) NOT NULL UNIQUE,
     amount      DECIMAL(15,2) NOT NULL,
@@ -149,6 +197,22 @@ CREATE TABLE IF NOT EXISTS payments (
     status      ENUM('PENDING','COMPLETED','FAILED','REFUNDED') NOT NULL DEFAULT 'PENDING',
     description TEXT,
     created_at  DATETIME,
-    FOREIGN KEY (user_id) REFERENCES app_users(id) ON DELETE CASCADE
+    FOREIGN KEY (user_id) REFERENCES app_users(id) ON DELETE CASCADE,
+    INDEX idx_payments_user (user_id),
+    INDEX idx_payments_user_status (user_id, status),
+    INDEX idx_payments_status_method (status, method),
+    INDEX idx_payments_method (method),
+    INDEX idx_payments_created_at (created_at)
+);
+
+-- ── Payment Revenue Rollup ────────────────────────────────
+-- Completed revenue per month of completion and method, maintained on payment status changes.
+CREATE TABLE IF NOT EXISTS payment_revenue_rollup (
+    id            BIGINT AUTO_INCREMENT PRIMARY KEY,
+    revenue_month DATE NOT NULL,
+    method        ENUM('NEFT','RTGS','UPI','DD','CHEQUE') NOT NULL,
+    revenue       DECIMAL(15,2) NOT NULL,
+    payment_count BIGINT NOT NULL,
+    CONSTRAINT uk_payment_revenue_rollup_month_method UNIQUE (revenue_month, method)
 );
 
@@ -0,0 +1,95 @@
+package com.blackpearl.benchmark;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Spring context for benchmarks: the entities and repositories on the in-memory H2 database of
+ * the {@code test} profile, without the web layer or the application's own configuration. The
+ * services a benchmark exercises are registered alongside.
+ * <p>
+ * Not a {@code @Configuration}, so component scans of the application never pick it up.
+ */
+@EnableAutoConfiguration
+@EntityScan("com.blackpearl.model")
+@EnableJpaRepositories("com.blackpearl.repository")
+public class BenchmarkContext {
+
+    private static final String[] ORDER_STATUSES = {"PENDING", "APPROVED", "IN_PROGRESS", "COMPLETED", "REJECTED"};
+    private static final String[] PAYMENT_STATUSES = {"PENDING", "COMPLETED", "FAILED", "REFUNDED"};
+    private static final String[] TENDER_STATUSES = {"OPEN", "CLOSING_SOON", "CLOSED", "AWARDED"};
+
+    public static ConfigurableApplicationContext start(Class<?>... components) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        Class<?>[] sources = Stream.concat(Stream.of(BenchmarkContext.class), Stream.of(components))
+                .toArray(Class<?>[]::new);
+        return new SpringApplicationBuilder(sources)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .logStartupInfo(false)
+                .run();
+    }
+
+    public static Statistics statistics(ConfigurableApplicationContext context) {
+        return context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Seeds {@code users} users with {@code rowsPerUser} ship orders, repairs, stock exports and
+     * payments each, spread over the statuses and the last twelve months, and one tender per user.
+     */
+    public static void seed(JdbcTemplate jdbc, int users, int rowsPerUser) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> userRows = new ArrayList<>();
+        List<Object[]> tenderRows = new ArrayList<>();
+        for (long u = 1; u <= users; u++) {
+            userRows.add(new Object[]{u, "First" + u, "Last" + u, "user" + u + "@example.com"});
+            tenderRows.add(new Object[]{"T-" + u, "Tender " + u, "Hull",
+                    BigDecimal.valueOf(1000 * u), TENDER_STATUSES[(int) (u % TENDER_STATUSES.length)]});
+        }
+        jdbc.batchUpdate("INSERT INTO app_users (id, first_name, last_name, email, password, department, role, " +
+                "active, version) VALUES (?, ?, ?, ?, 'x', 'OTHER', 'USER', TRUE, 0)", userRows);
+        jdbc.batchUpdate("INSERT INTO tenders (tender_no, title, category, `value`, status, version) " +
+                "VALUES (?, ?, ?, ?, ?, 0)", tenderRows);
+
+        List<Object[]> orders = new ArrayList<>();
+        List<Object[]> repairs = new ArrayList<>();
+        List<Object[]> exports = new ArrayList<>();
+        List<Object[]> payments = new ArrayList<>();
+        long n = 0;
+        for (long u = 1; u <= users; u++) {
+            for (int i = 0; i < rowsPerUser; i++, n++) {
+                Timestamp createdAt = Timestamp.valueOf(now.minusHours(n % (365 * 24)));
+                orders.add(new Object[]{u, "Bulk carrier", 5000 + i, ORDER_STATUSES[(int) (n % ORDER_STATUSES.length)],
+                        createdAt});
+                repairs.add(new Object[]{u, "Vessel " + n, "PENDING", createdAt});
+                exports.add(new Object[]{u, "Steel plate", 10 + i, "PENDING", createdAt});
+                payments.add(new Object[]{u, "PAY-" + n, BigDecimal.valueOf(100 + n % 900),
+                        PAYMENT_STATUSES[(int) (n % PAYMENT_STATUSES.length)], createdAt});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO ship_orders (user_id, ship_type, tonnage, status, created_at, version) " +
+                "VALUES (?, ?, ?, ?, ?, 0)", orders);
+        jdbc.batchUpdate("INSERT INTO ship_repairs (user_id, vessel_name, status, created_at, version) " +
+                "VALUES (?, ?, ?, ?, 0)", repairs);
+        jdbc.batchUpdate("INSERT INTO stock_exports (user_id, item_name, quantity, status, created_at, version) " +
+                "VALUES (?, ?, ?, ?, ?, 0)", exports);
+        jdbc.batchUpdate("INSERT INTO payments (user_id, payment_ref, amount, method, status, created_at, version) " +
+                "VALUES (?, ?, ?, 'NEFT', ?, ?, 0)", payments);
+    }
+}
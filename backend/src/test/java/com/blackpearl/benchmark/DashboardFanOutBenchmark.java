@@ -0,0 +1,128 @@
+package com.blackpearl.benchmark;
+
+import com.blackpearl.model.Tender;
+import com.blackpearl.repository.*;
+import com.blackpearl.service.FanOutExecutor;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall-clock time of the dashboard summary's database reads (the path taken until the in-memory
+ * counters are built), run one after another as before and forked on {@link FanOutExecutor}.
+ * The in-memory database answers without a network hop, so {@code roundTripMs} adds a fixed
+ * delay to every statement to stand in for the round trip to a database server. Run after
+ * {@code mvn test-compile} with
+ * {@code java -cp target/test-classes:target/classes:<test classpath> org.openjdk.jmh.Main DashboardFanOutBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DashboardFanOutBenchmark {
+
+    @Param({"0", "2"})
+    public int roundTripMs;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository users;
+    private ShipOrderRepository shipOrders;
+    private TenderRepository tenders;
+    private PaymentRevenueRollupRepository rollup;
+    private FanOutExecutor fanOut;
+
+    @Setup
+    public void setUp() {
+        RoundTripDelay.millis = roundTripMs;
+        context = BenchmarkContext.start(FanOutExecutor.class, RoundTripDelay.class);
+        BenchmarkContext.seed(context.getBean(JdbcTemplate.class), 200, 50);
+        users = context.getBean(UserRepository.class);
+        shipOrders = context.getBean(ShipOrderRepository.class);
+        tenders = context.getBean(TenderRepository.class);
+        rollup = context.getBean(PaymentRevenueRollupRepository.class);
+        fanOut = context.getBean(FanOutExecutor.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Object> serial() {
+        YearMonth first = YearMonth.now().minusMonths(5);
+        List<Object> result = new ArrayList<>();
+        result.add(users.count());
+        result.add(shipOrders.count());
+        result.add(tenders.countByStatus(Tender.Status.OPEN));
+        result.add(rollup.sumTotalRevenue());
+        result.add(rollup.sumRevenueByMonth(first.atDay(1), first.plusMonths(6).atDay(1)));
+        result.add(shipOrders.countGroupByStatus());
+        return result;
+    }
+
+    @Benchmark
+    public List<Object> fannedOut() {
+        YearMonth first = YearMonth.now().minusMonths(5);
+        FanOutExecutor.Scope scope = fanOut.scope();
+        List<CompletableFuture<?>> branches = List.of(
+                scope.fork("totalUsers", users::count, 0L),
+                scope.fork("totalOrders", shipOrders::count, 0L),
+                scope.fork("activeTenders", () -> tenders.countByStatus(Tender.Status.OPEN), 0L),
+                scope.fork("totalRevenue", rollup::sumTotalRevenue, BigDecimal.ZERO),
+                scope.fork("revenueByMonth",
+                        () -> rollup.sumRevenueByMonth(first.atDay(1), first.plusMonths(6).atDay(1)), List.of()),
+                scope.fork("ordersByStatus", shipOrders::countGroupByStatus, List.of()));
+        List<Object> result = new ArrayList<>();
+        branches.forEach(branch -> result.add(branch.join()));
+        return result;
+    }
+
+    /** Delays every statement execution by {@link #millis}, as a network round trip would. */
+    public static class RoundTripDelay implements BeanPostProcessor {
+
+        static volatile int millis;
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            return bean instanceof DataSource dataSource ? delaying(DataSource.class, dataSource) : bean;
+        }
+
+        private static <T> T delaying(Class<T> type, T target) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                if (method.getName().startsWith("execute") && target instanceof Statement) {
+                    Thread.sleep(millis);
+                }
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                Class<?> returned = method.getReturnType();
+                boolean wrap = returned == Connection.class || Statement.class.isAssignableFrom(returned);
+                return wrap && result != null ? delayingAny(returned, result) : result;
+            }));
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Object delayingAny(Class<?> type, Object target) {
+            return delaying((Class<Object>) type, target);
+        }
+    }
+}
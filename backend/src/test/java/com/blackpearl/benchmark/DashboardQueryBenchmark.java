@@ -0,0 +1,127 @@
+package com.blackpearl.benchmark;
+
+import com.blackpearl.model.ShipOrder;
+import com.blackpearl.model.Tender;
+import com.blackpearl.repository.*;
+import jakarta.persistence.EntityManager;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * The database work behind the user dashboard and the dashboard summary, as it was (loading the
+ * rows to count them, one revenue sum per month, one status list per status) and as aggregate
+ * queries. Statement counts per call are printed at setup. Run after {@code mvn test-compile}
+ * with {@code java -cp target/test-classes:target/classes:<test classpath> org.openjdk.jmh.Main DashboardQueryBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DashboardQueryBenchmark {
+
+    private static final int USERS = 200;
+
+    /** Ship orders, repairs, stock exports and payments per user. */
+    @Param({"5", "250"})
+    public int rowsPerUser;
+
+    private ConfigurableApplicationContext context;
+    private ShipOrderRepository shipOrders;
+    private ShipRepairRepository shipRepairs;
+    private StockExportRepository stockExports;
+    private TenderRepository tenders;
+    private PaymentRepository payments;
+    private UserRepository users;
+    private EntityManager entityManager;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seed(context.getBean(JdbcTemplate.class), USERS, rowsPerUser);
+        shipOrders = context.getBean(ShipOrderRepository.class);
+        shipRepairs = context.getBean(ShipRepairRepository.class);
+        stockExports = context.getBean(StockExportRepository.class);
+        tenders = context.getBean(TenderRepository.class);
+        payments = context.getBean(PaymentRepository.class);
+        users = context.getBean(UserRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+
+        Statistics statistics = BenchmarkContext.statistics(context);
+        System.out.printf("%n%d rows per table: loadRows %d statements, aggregates %d statements%n",
+                USERS * rowsPerUser, statements(statistics, this::loadRows), statements(statistics, this::aggregates));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /** User stats and dashboard summary as before: lists loaded to take their size. */
+    @Benchmark
+    public List<Object> loadRows() {
+        long uid = 1;
+        List<Object> result = new ArrayList<>();
+        result.add(shipOrders.findByUserId(uid).size());
+        result.add(shipRepairs.findByUserId(uid).size());
+        result.add(tenders.findByStatus(Tender.Status.OPEN).size());
+        result.add(stockExports.findByUserId(uid).size());
+
+        result.add(users.count());
+        result.add(shipOrders.count());
+        result.add(tenders.findByStatus(Tender.Status.OPEN).size());
+        result.add(payments.sumTotalCompletedPayments());
+        for (int i = 5; i >= 0; i--) {
+            YearMonth ym = YearMonth.now().minusMonths(i);
+            result.add(payments.sumCompletedPaymentsBetween(ym.atDay(1).atStartOfDay(),
+                    ym.atEndOfMonth().atTime(23, 59, 59)));
+        }
+        for (ShipOrder.Status s : ShipOrder.Status.values()) {
+            result.add(shipOrders.findByStatus(s).size());
+        }
+        return result;
+    }
+
+    /** The same figures from COUNT and GROUP BY queries. */
+    @Benchmark
+    public List<Object> aggregates() {
+        long uid = 1;
+        List<Object> result = new ArrayList<>();
+        result.add(shipOrders.countByUserId(uid));
+        result.add(shipRepairs.countByUserId(uid));
+        result.add(tenders.countByStatus(Tender.Status.OPEN));
+        result.add(stockExports.countByUserId(uid));
+
+        YearMonth first = YearMonth.now().minusMonths(5);
+        result.add(users.count());
+        result.add(shipOrders.count());
+        result.add(tenders.countByStatus(Tender.Status.OPEN));
+        BigDecimal total = payments.sumTotalCompletedPayments();
+        result.add(total);
+        // The monthly GROUP BY since replaced by the revenue rollup table.
+        result.add(entityManager.createQuery("SELECT YEAR(p.createdAt), MONTH(p.createdAt), SUM(p.amount) " +
+                        "FROM Payment p WHERE p.status = 'COMPLETED' AND p.createdAt >= :start AND p.createdAt < :end " +
+                        "GROUP BY YEAR(p.createdAt), MONTH(p.createdAt)", Object[].class)
+                .setParameter("start", first.atDay(1).atStartOfDay())
+                .setParameter("end", first.plusMonths(6).atDay(1).atStartOfDay())
+                .getResultList());
+        result.add(shipOrders.countGroupByStatus());
+        return result;
+    }
+
+    private static long statements(Statistics statistics, Supplier<?> call) {
+        statistics.clear();
+        call.get();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,153 @@
+package com.blackpearl.benchmark;
+
+import com.blackpearl.config.MessageConverterConfig;
+import com.blackpearl.dto.NotificationDto;
+import com.blackpearl.dto.ShipOrderDto;
+import com.blackpearl.model.Notification;
+import com.blackpearl.model.ShipOrder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Size and serialization time of a default-sized list page in each format the API negotiates,
+ * with the application's mappers (Boot's Jackson settings, {@link MessageConverterConfig}).
+ * {@code gzipped} adds the compression the connector applies above its minimum response size,
+ * at the JDK's default level as Tomcat uses it. Sizes are printed at setup. Run after
+ * {@code mvn test-compile} with
+ * {@code java -cp target/test-classes:target/classes:<test classpath> org.openjdk.jmh.Main PayloadFormatBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadFormatBenchmark {
+
+    /** {@code pagination.default-size}. */
+    private static final int PAGE_SIZE = 100;
+    /** Fixed, so sizes repeat between runs. */
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 1, 9, 30);
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"shipOrders", "notifications"})
+    public String list;
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper mapper;
+    private List<?> page;
+
+    @Setup
+    public void setUp() throws IOException {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        context = new SpringApplicationBuilder(JacksonAutoConfiguration.class, MessageConverterConfig.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run();
+        Map<String, ObjectMapper> mappers = Map.of(
+                "json", context.getBean(ObjectMapper.class),
+                "cbor", context.getBean(MappingJackson2CborHttpMessageConverter.class).getObjectMapper(),
+                "smile", context.getBean(MappingJackson2SmileHttpMessageConverter.class).getObjectMapper());
+        mapper = mappers.get(format);
+        page = list.equals("shipOrders") ? shipOrders() : notifications();
+
+        byte[] raw = serialized();
+        byte[] gzip = gzipped();
+        System.out.printf("%n%s, %d %s: %d bytes, %d gzipped%n", format, PAGE_SIZE, list, raw.length, gzip.length);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] serialized() throws IOException {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] gzipped() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            mapper.writeValue(gzip, page);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<ShipOrderDto> shipOrders() {
+        String[] types = {"Bulk carrier", "Container ship", "Oil tanker", "LNG carrier", "Ro-Ro ferry"};
+        String[] materials = {"High-tensile steel", "Mild steel", "Aluminium alloy"};
+        String[] features = {"double hull", "ice class 1A", "bow thruster", "ballast water treatment",
+                "diesel-electric propulsion", "scrubber", "shaft generator", "helideck"};
+        ShipOrder.Status[] statuses = ShipOrder.Status.values();
+        Random random = new Random(42);
+        List<ShipOrderDto> page = new ArrayList<>();
+        long id = 100_000;
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            id -= 1 + random.nextInt(3);
+            long userId = 1_000L + random.nextInt(5_000);
+            page.add(ShipOrderDto.builder()
+                    .id(id)
+                    .userId(userId)
+                    .userEmail("customer" + userId + "@example.com")
+                    .shipType(types[random.nextInt(types.length)])
+                    .tonnage(2_000 + random.nextInt(200_000))
+                    .material(materials[random.nextInt(materials.length)])
+                    .specifications(random.nextInt(3) == 0 ? null : features[random.nextInt(features.length)] + ", "
+                            + features[random.nextInt(features.length)] + ", " + (2 + random.nextInt(9))
+                            + " cargo holds, " + (8 + random.nextInt(20)) + " knots service speed")
+                    .expectedDelivery(NOW.toLocalDate().plusDays(120 + random.nextInt(900)))
+                    .status(statuses[random.nextInt(statuses.length)])
+                    .adminNotes(random.nextInt(4) == 0 ? "Hull survey booked for week " + random.nextInt(52) : null)
+                    .createdAt(NOW.minusSeconds(i * 3_600L + random.nextInt(3_600)))
+                    .build());
+        }
+        return page;
+    }
+
+    private static List<NotificationDto> notifications() {
+        Notification.Type[] types = Notification.Type.values();
+        ShipOrder.Status[] statuses = ShipOrder.Status.values();
+        Random random = new Random(42);
+        List<NotificationDto> page = new ArrayList<>();
+        long id = 500_000;
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            id -= 1 + random.nextInt(40);
+            boolean broadcast = random.nextInt(5) == 0;
+            long order = 90_000L + random.nextInt(10_000);
+            page.add(NotificationDto.builder()
+                    .id(id)
+                    .userId(broadcast ? null : 1_042L)
+                    .userEmail(broadcast ? null : "customer1042@example.com")
+                    .title(broadcast ? "Dry dock " + (1 + random.nextInt(4)) + " maintenance"
+                            : "Ship order #" + order + " updated")
+                    .message(broadcast ? "Closed from " + NOW.toLocalDate().plusDays(random.nextInt(60))
+                            + " for " + (1 + random.nextInt(5)) + " days."
+                            : "Ship order #" + order + " is now " + statuses[random.nextInt(statuses.length)] + ".")
+                    .type(types[random.nextInt(types.length)])
+                    .read(random.nextBoolean())
+                    .createdAt(NOW.minusSeconds(i * 2_460L + random.nextInt(2_460)))
+                    .build());
+        }
+        return page;
+    }
+}
@@ -0,0 +1,136 @@
+package com.blackpearl.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing between two in-memory databases that each say which one they are. The lag check is
+ * stubbed, as H2 has no {@code SHOW REPLICA STATUS}.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final long MAX_LAG_MS = 100;
+    private static final long CHECK_INTERVAL_MS = 250;
+
+    private StubbedLag routing;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        routing = new StubbedLag(database("primary"), database("replica"));
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        // Before any check the replica is not in use; this also takes class loading out of the timings.
+        assertThat(readOnlyRead()).isEqualTo("primary");
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS whoami (name VARCHAR(16))");
+        jdbc.execute("DELETE FROM whoami");
+        jdbc.update("INSERT INTO whoami VALUES (?)", name);
+        return dataSource;
+    }
+
+    private String readOnlyRead() {
+        return readOnly.execute(tx -> whoami());
+    }
+
+    private String whoami() {
+        return jdbc.queryForObject("SELECT name FROM whoami", String.class);
+    }
+
+    @Test
+    void readOnlyTransactionsGoToAHealthyReplica() {
+        routing.checkLag();
+
+        assertThat(readOnlyRead()).isEqualTo("replica");
+        assertThat(routing.stats()).containsEntry("replicaReads", 1L);
+    }
+
+    @Test
+    void writesAndReadsOutsideTransactionsGoToThePrimary() {
+        routing.checkLag();
+
+        String written = readWrite.execute(tx -> whoami());
+        assertThat(written).isEqualTo("primary");
+        assertThat(whoami()).isEqualTo("primary");
+    }
+
+    @Test
+    void readsRightAfterAWriteGoToThePrimary() throws InterruptedException {
+        routing.checkLag();
+        readWrite.executeWithoutResult(tx -> jdbc.update("UPDATE whoami SET name = name"));
+
+        assertThat(readOnlyRead()).isEqualTo("primary");
+
+        Thread.sleep(MAX_LAG_MS + CHECK_INTERVAL_MS + 50);
+        routing.checkLag();
+        assertThat(readOnlyRead()).isEqualTo("replica");
+    }
+
+    @Test
+    void aFailedOrLaggingCheckFallsBackToThePrimary() {
+        routing.checkLag();
+        routing.failure = new SQLException("replica unreachable");
+        routing.checkLag();
+        assertThat(readOnlyRead()).isEqualTo("primary");
+
+        routing.failure = null;
+        routing.lagMs = MAX_LAG_MS + 1000;
+        routing.checkLag();
+        assertThat(readOnlyRead()).isEqualTo("primary");
+
+        routing.lagMs = -1;
+        routing.checkLag();
+        assertThat(readOnlyRead()).isEqualTo("primary");
+    }
+
+    @Test
+    void anOldCheckFallsBackToThePrimary() throws InterruptedException {
+        routing.checkLag();
+        assertThat(readOnlyRead()).isEqualTo("replica");
+
+        Thread.sleep(2 * CHECK_INTERVAL_MS + 100);
+        assertThat(readOnlyRead()).isEqualTo("primary");
+
+        routing.checkLag();
+        assertThat(readOnlyRead()).isEqualTo("replica");
+    }
+
+    private static class StubbedLag extends ReplicaRoutingDataSource {
+
+        volatile long lagMs;
+        volatile SQLException failure;
+
+        StubbedLag(DataSource primary, DataSource replica) {
+            super(primary, replica, MAX_LAG_MS, CHECK_INTERVAL_MS);
+        }
+
+        @Override
+        long readLagMs() throws SQLException {
+            if (failure != null) {
+                throw failure;
+            }
+            return lagMs;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.blackpearl.controller;
+
+import com.blackpearl.model.User;
+import com.blackpearl.security.CustomUserDetails;
+import com.blackpearl.service.PaymentRevenueRollupService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * List and detail reads select their DTOs with the owner's columns in one query, so the
+ * statements an endpoint issues do not grow with the rows it returns. Each list is read one row
+ * deep and {@code ROWS} deep, the deep page holding rows of {@code ROWS} different owners, and
+ * both must cost the same number of statements.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ListStatementCountTest {
+
+    private static final int ROWS = 10;
+
+    /** Its startup backfill uses MySQL's DATE_FORMAT, which H2 lacks. */
+    @MockBean
+    private PaymentRevenueRollupService revenueRollup;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private static CustomUserDetails admin;
+    private static Long ownerId;
+    private static final List<Long> ownedOrders = new ArrayList<>();
+    private static final List<Long> ownedPayments = new ArrayList<>();
+    private static final List<Long> othersOrders = new ArrayList<>();
+    private static final List<Long> othersPayments = new ArrayList<>();
+
+    /** One owner with {@code ROWS} rows of each kind, and {@code ROWS} users with one each. */
+    @BeforeEach
+    void seed() {
+        if (ownerId != null) {
+            return;
+        }
+        admin = new CustomUserDetails(createUser("count-admin@example.com", "ADMIN"), "count-admin@example.com",
+                User.Role.ADMIN, User.Department.ADMINISTRATION);
+        ownerId = createUser("count-owner@example.com", "USER");
+        for (int i = 0; i < ROWS; i++) {
+            Long[] own = createRows(ownerId, "owner-" + i);
+            ownedOrders.add(own[0]);
+            ownedPayments.add(own[1]);
+            jdbc.update("INSERT INTO notifications (user_id, title, message, type, created_at, version) " +
+                    "VALUES (NULL, 'Broadcast', 'To everyone', 'INFO', CURRENT_TIMESTAMP, 0)");
+        }
+        // Inserted last, so the newest ROWS rows of every table have ROWS different owners.
+        for (int i = 0; i < ROWS; i++) {
+            Long[] rows = createRows(createUser("count-user" + i + "@example.com", "USER"), "other-" + i);
+            othersOrders.add(rows[0]);
+            othersPayments.add(rows[1]);
+        }
+    }
+
+    @Test
+    void adminListsDoNotQueryPerOwner() throws Exception {
+        for (String list : List.of("/api/ship-orders", "/api/ship-repairs", "/api/stock-exports", "/api/payments",
+                "/notifications")) {
+            assertConstant(list, admin);
+        }
+    }
+
+    @Test
+    void ownListsDoNotQueryPerRow() throws Exception {
+        assertConstant("/api/ship-orders/my", owner(User.Role.ENGINEERING));
+        assertConstant("/api/ship-repairs/my", owner(User.Role.ENGINEERING));
+        assertConstant("/api/stock-exports/my", owner(User.Role.OPERATIONS));
+        assertConstant("/api/payments/my", owner(User.Role.FINANCE));
+        assertConstant("/notifications/my", owner(User.Role.USER));
+    }
+
+    @Test
+    void detailReadsCostTheSameForEveryOwner() throws Exception {
+        long order = statements("/api/ship-orders/" + ownedOrders.get(0), admin);
+        long payment = statements("/api/payments/" + ownedPayments.get(0), admin);
+        for (int i = 0; i < ROWS; i++) {
+            assertThat(statements("/api/ship-orders/" + othersOrders.get(i), admin)).isEqualTo(order);
+            assertThat(statements("/api/payments/" + othersPayments.get(i), admin)).isEqualTo(payment);
+        }
+        assertThat(statements("/api/ship-orders/" + ownedOrders.get(1), owner(User.Role.ENGINEERING))).isEqualTo(order);
+    }
+
+    /** The owner, in the role that the module's endpoints require. */
+    private static CustomUserDetails owner(User.Role role) {
+        return new CustomUserDetails(ownerId, "count-owner@example.com", role, User.Department.OTHER);
+    }
+
+    private void assertConstant(String list, CustomUserDetails caller) throws Exception {
+        // The first read also resolves the caller, which later reads take from caches.
+        statements(list + "?size=1", caller);
+        long one = statements(list + "?size=1", caller);
+        long many = statements(list + "?size=" + ROWS, caller);
+        assertThat(many).as("statements for %s with %d rows vs 1", list, ROWS).isEqualTo(one);
+    }
+
+    private long statements(String url, CustomUserDetails caller) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mvc.perform(get(url).with(user(caller)))
+                .andExpect(status().isOk())
+                .andExpect(url.contains("size=") ? jsonPath("$.length()").value(Integer.parseInt(
+                        url.substring(url.indexOf("size=") + 5))) : jsonPath("$.id").exists());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Long createUser(String email, String role) {
+        jdbc.update("INSERT INTO app_users (first_name, last_name, email, password, department, role, active, " +
+                "version) VALUES ('Count', 'User', ?, 'x', 'OTHER', ?, TRUE, 0)", email, role);
+        return jdbc.queryForObject("SELECT id FROM app_users WHERE email = ?", Long.class, email);
+    }
+
+    /** A ship order, payment, repair, stock export and notification of the user; the order's and payment's ids. */
+    private Long[] createRows(Long userId, String key) {
+        jdbc.update("INSERT INTO ship_orders (user_id, ship_type, tonnage, status, created_at, version) " +
+                "VALUES (?, 'Bulk carrier', 5000, 'PENDING', CURRENT_TIMESTAMP, 0)", userId);
+        Long order = jdbc.queryForObject("SELECT MAX(id) FROM ship_orders", Long.class);
+        jdbc.update("INSERT INTO payments (user_id, payment_ref, amount, method, status, created_at, version) " +
+                "VALUES (?, ?, 100, 'NEFT', 'PENDING', CURRENT_TIMESTAMP, 0)", userId, "PAY-" + key);
+        Long payment = jdbc.queryForObject("SELECT MAX(id) FROM payments", Long.class);
+        jdbc.update("INSERT INTO ship_repairs (user_id, vessel_name, status, created_at, version) " +
+                "VALUES (?, ?, 'PENDING', CURRENT_TIMESTAMP, 0)", userId, "Vessel " + key);
+        jdbc.update("INSERT INTO stock_exports (user_id, item_name, quantity, status, created_at, version) " +
+                "VALUES (?, 'Steel plate', 10, 'PENDING', CURRENT_TIMESTAMP, 0)", userId);
+        jdbc.update("INSERT INTO notifications (user_id, title, message, type, created_at, version) " +
+                "VALUES (?, 'Order received', 'Thanks', 'INFO', CURRENT_TIMESTAMP, 0)", userId);
+        return new Long[]{order, payment};
+    }
+}
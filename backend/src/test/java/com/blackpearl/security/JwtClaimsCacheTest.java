@@ -0,0 +1,77 @@
+package com.blackpearl.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtClaimsCacheTest {
+
+    private static Claims expiringIn(long millis) {
+        return Jwts.claims().setSubject("user@example.com")
+                .setExpiration(new Date(System.currentTimeMillis() + millis));
+    }
+
+    @Test
+    void servesLiveEntries() {
+        JwtClaimsCache cache = new JwtClaimsCache(10);
+        Claims claims = expiringIn(60_000);
+        cache.put("a", claims);
+
+        assertThat(cache.get("a")).isSameAs(claims);
+        assertThat(cache.get("b")).isNull();
+    }
+
+    @Test
+    void dropsExpiredEntriesOnRead() {
+        JwtClaimsCache cache = new JwtClaimsCache(10);
+        cache.put("a", expiringIn(-1));
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void sweepsExpiredEntriesToMakeRoom() {
+        JwtClaimsCache cache = new JwtClaimsCache(2);
+        cache.put("a", expiringIn(-1));
+        cache.put("b", expiringIn(-1));
+        Claims live = expiringIn(60_000);
+        cache.put("c", live);
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get("c")).isSameAs(live);
+    }
+
+    @Test
+    void neverGrowsPastItsBound() {
+        JwtClaimsCache cache = new JwtClaimsCache(2);
+        cache.put("a", expiringIn(60_000));
+        cache.put("b", expiringIn(60_000));
+        cache.put("c", expiringIn(60_000));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("a")).isNotNull();
+        assertThat(cache.get("c")).isNull();
+    }
+
+    @Test
+    void skipsClaimsWithoutExpiryAndDisabledCaches() {
+        JwtClaimsCache cache = new JwtClaimsCache(10);
+        cache.put("a", Jwts.claims().setSubject("user@example.com"));
+        assertThat(cache.get("a")).isNull();
+
+        JwtClaimsCache disabled = new JwtClaimsCache(0);
+        disabled.put("a", expiringIn(60_000));
+        assertThat(disabled.size()).isZero();
+    }
+
+    @Test
+    void digestsAreStablePerToken() {
+        assertThat(JwtClaimsCache.digest("x.y.z")).isEqualTo(JwtClaimsCache.digest("x.y.z"))
+                .isNotEqualTo(JwtClaimsCache.digest("x.y.w"));
+    }
+}
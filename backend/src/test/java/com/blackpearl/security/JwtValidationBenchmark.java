@@ -0,0 +1,65 @@
+package com.blackpearl.security;
+
+import com.blackpearl.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of validating the bearer token of a request: the original per-call key and parser
+ * construction, a shared parser, and {@link JwtUtil#validateToken} answering from the claims
+ * cache. Run after {@code mvn test-compile} with
+ * {@code java -cp target/test-classes:target/classes:<test classpath> org.openjdk.jmh.Main JwtValidationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET = "BlackPearlShipyardSecretKey2025VeryLongSecureKeyForJWT";
+
+    private JwtUtil jwtUtil;
+    private JwtParser sharedParser;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(new TokenVersionRegistry());
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 900_000L);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCacheMaxSize", 10_000);
+        jwtUtil.init();
+        sharedParser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8))).build();
+        token = jwtUtil.generateToken(new CustomUserDetails(1L, "user@example.com", User.Role.USER, null));
+    }
+
+    /** What every request did before: decode the secret, build a key and a parser, verify. */
+    @Benchmark
+    public Claims perCallParser() {
+        byte[] keyBytes = Decoders.BASE64.decode(
+                java.util.Base64.getEncoder().encodeToString(SECRET.getBytes()));
+        return Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(keyBytes)).build()
+                .parseClaimsJws(token).getBody();
+    }
+
+    @Benchmark
+    public Claims sharedParser() {
+        return sharedParser.parseClaimsJws(token).getBody();
+    }
+
+    @Benchmark
+    public Claims cachedClaims() {
+        return jwtUtil.validateToken(token);
+    }
+}
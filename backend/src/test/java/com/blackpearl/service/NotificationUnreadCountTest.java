@@ -0,0 +1,112 @@
+package com.blackpearl.service;
+
+import com.blackpearl.dto.NotificationDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unread counts through sending, reading and deleting: direct notifications are counted on the
+ * recipient's row, broadcasts against each reader's watermark.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class NotificationUnreadCountTest {
+
+    private static final String ALICE = "unread-alice@example.com";
+    private static final String BOB = "unread-bob@example.com";
+
+    /** Its startup backfill uses MySQL's DATE_FORMAT, which H2 lacks. */
+    @MockBean
+    private PaymentRevenueRollupService revenueRollup;
+
+    @Autowired
+    private NotificationService notifications;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private Long alice;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("DELETE FROM notification_receipts");
+        jdbc.update("DELETE FROM notification_read_state");
+        jdbc.update("DELETE FROM notifications");
+        alice = createUser(ALICE);
+        createUser(BOB);
+    }
+
+    @Test
+    void broadcastsCountForEveryoneAndDirectNotificationsForTheRecipient() {
+        Long broadcast = send(null);
+        Long direct = send(alice);
+        assertThat(notifications.unreadCount(ALICE)).isEqualTo(2);
+        assertThat(notifications.unreadCount(BOB)).isEqualTo(1);
+
+        send(null);
+        assertThat(notifications.unreadCount(ALICE)).isEqualTo(3);
+        assertThat(notifications.unreadCount(BOB)).isEqualTo(2);
+
+        notifications.markRead(ALICE, broadcast);
+        notifications.markRead(ALICE, direct);
+        // Only the recipient can read a direct notification.
+        notifications.markRead(BOB, direct);
+        assertThat(notifications.unreadCount(ALICE)).isEqualTo(1);
+        assertThat(notifications.unreadCount(BOB)).isEqualTo(2);
+    }
+
+    @Test
+    void aRowCreatedAfterBroadcastsCountsThem() {
+        send(null);
+        send(null);
+        send(alice);
+
+        assertThat(notifications.unreadCount(BOB)).isEqualTo(2);
+        assertThat(notifications.unreadCount(ALICE)).isEqualTo(3);
+    }
+
+    @Test
+    void deletingOrReadingEverythingTakesNotificationsOutOfTheCounts() {
+        Long broadcast = send(null);
+        Long direct = send(alice);
+        send(null);
+        notifications.markRead(BOB, broadcast);
+        assertThat(notifications.unreadCount(BOB)).isEqualTo(1);
+
+        notifications.deleteNotification(broadcast);
+        notifications.deleteNotification(direct);
+        assertThat(notifications.unreadCount(ALICE)).isEqualTo(1);
+        assertThat(notifications.unreadCount(BOB)).isEqualTo(1);
+
+        notifications.markAllRead(ALICE);
+        notifications.markAllRead(ALICE);
+        assertThat(notifications.unreadCount(ALICE)).isZero();
+
+        send(alice);
+        send(null);
+        assertThat(notifications.unreadCount(ALICE)).isEqualTo(2);
+        assertThat(notifications.unreadCount(BOB)).isEqualTo(2);
+    }
+
+    private Long send(Long userId) {
+        return notifications.sendNotification(NotificationDto.builder()
+                .userId(userId)
+                .title("Unread count")
+                .message("Test")
+                .build()).getId();
+    }
+
+    private Long createUser(String email) {
+        jdbc.update("INSERT INTO app_users (first_name, last_name, email, password, department, role, active, " +
+                "version) SELECT 'Unread', 'User', ?, 'x', 'OTHER', 'USER', TRUE, 0 " +
+                "WHERE NOT EXISTS (SELECT 1 FROM app_users WHERE email = ?)", email, email);
+        return jdbc.queryForObject("SELECT id FROM app_users WHERE email = ?", Long.class, email);
+    }
+}
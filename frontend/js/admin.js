@@ -23,11 +23,35 @@ const AdminModule = (() => {
 
         await loadDashboardSummary();
 
-        // Start 30s polling
-        setInterval(async () => {
+        // Live updates replace polling: reload once per (re)connect, then apply pushed deltas
+        API.dashboard.stream((type, data) => {
+            if (type === 'counters') applyCounters(data);
+            else if (type === 'hello' || type === 'status') scheduleSummaryReload();
+        });
+    }
+
+    const COUNTER_STATS = {
+        'User.total': 'statTotalUsers',
+        'ShipOrder.total': 'statTotalOrders',
+        'Tender.status.OPEN': 'statActiveTenders',
+    };
+
+    function applyCounters(values) {
+        Object.entries(values).forEach(([key, value]) => {
+            if (COUNTER_STATS[key]) updateEl(COUNTER_STATS[key], value);
+        });
+        // Chart data (orders by status, revenue) comes from the summary
+        if (Object.keys(values).some(k => k.startsWith('ShipOrder.status.'))) scheduleSummaryReload();
+    }
+
+    // Bursts of events collapse into one summary fetch
+    let summaryReload = null;
+    function scheduleSummaryReload() {
+        if (summaryReload) return;
+        summaryReload = setTimeout(async () => {
+            summaryReload = null;
             await loadDashboardSummary();
-            console.log('[Admin Poll] Dashboard data refreshed');
-        }, 30000);
+        }, 1500);
     }
 
     // ── Dashboard Stats & Charts (API-driven) ─────────────────
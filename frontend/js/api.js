@@ -14,12 +14,36 @@ const API = (() => {
     return headers;
   }
 
-  async function request(method, endpoint, body = null) {
+  // Access tokens are short-lived: on a 401, swap the refresh token for a new pair once.
+  let refreshing = null;
+  async function refreshTokens() {
+    const refreshToken = localStorage.getItem('refreshToken');
+    if (!refreshToken) return false;
+    if (!refreshing) {
+      refreshing = fetch(`${BASE_URL}/auth/refresh`, {
+        method: 'POST',
+        headers: { 'Content-Type': 'application/json' },
+        body: JSON.stringify({ refreshToken }),
+      }).then(async res => {
+        if (!res.ok) return false;
+        const data = await res.json();
+        localStorage.setItem('token', data.token);
+        localStorage.setItem('refreshToken', data.refreshToken);
+        return true;
+      }).catch(() => false).finally(() => { refreshing = null; });
+    }
+    return refreshing;
+  }
+
+  async function request(method, endpoint, body = null, retried = false) {
     const options = { method, headers: getHeaders() };
     if (body) options.body = JSON.stringify(body);
     try {
       const res = await fetch(`${BASE_URL}${endpoint}`, options);
       if (res.status === 401) {
+        if (!retried && !endpoint.startsWith('/auth/') && await refreshTokens()) {
+          return request(method, endpoint, body, true);
+        }
         Auth.logout();
         return null;
       }
@@ -27,13 +51,74 @@ const API = (() => {
         const err = await res.json().catch(() => ({ message: 'Request failed' }));
         throw new Error(err.message || `HTTP ${res.status}`);
       }
-      return res.status === 204 ? null : await res.json();
+      return res.status === 204 || res.status === 202 ? null : await res.json();
     } catch (e) {
       console.error(`[API] ${method} ${endpoint}:`, e.message);
       throw e;
     }
   }
 
+  // ── Live updates ──────────────────────────────────────────
+  // Server-Sent Events read over fetch (EventSource cannot send the Authorization header).
+  // Reconnects with backoff, resuming from the last event id; returns a function that closes the stream.
+  function subscribe(endpoint, onEvent) {
+    let stopped = false;
+    let controller = null;
+    let delay = 1000;
+    const last = { id: null };
+
+    (async () => {
+      while (!stopped) {
+        controller = new AbortController();
+        try {
+          const res = await fetch(`${BASE_URL}${endpoint}`, {
+            headers: { ...getHeaders(), Accept: 'text/event-stream', ...(last.id ? { 'Last-Event-ID': last.id } : {}) },
+            signal: controller.signal,
+          });
+          if (res.status === 401) {
+            if (await refreshTokens()) continue;
+            Auth.logout();
+            return;
+          }
+          if (!res.ok || !res.body) throw new Error(`HTTP ${res.status}`);
+          delay = 1000;
+          await readEvents(res.body, onEvent, last);
+        } catch (e) {
+          if (stopped) return;
+          console.warn(`[API] stream ${endpoint}:`, e.message);
+        }
+        if (stopped) return;
+        await new Promise(r => setTimeout(r, delay));
+        delay = Math.min(delay * 2, 30000);
+      }
+    })();
+
+    return () => { stopped = true; if (controller) controller.abort(); };
+  }
+
+  async function readEvents(body, onEvent, last) {
+    const reader = body.pipeThrough(new TextDecoderStream()).getReader();
+    let buffer = '';
+    while (true) {
+      const { value, done } = await reader.read();
+      if (done) return;
+      buffer += value;
+      let end;
+      while ((end = buffer.indexOf('\n\n')) >= 0) {
+        const block = buffer.slice(0, end);
+        buffer = buffer.slice(end + 2);
+        let type = 'message';
+        const data = [];
+        block.split('\n').forEach(line => {
+          if (line.startsWith('event:')) type = line.slice(6).trim();
+          else if (line.startsWith('id:')) last.id = line.slice(3).trim();
+          else if (line.startsWith('data:')) data.push(line.slice(5).replace(/^ /, ''));
+        });
+        if (data.length) onEvent(type, JSON.parse(data.join('\n')));
+      }
+    }
+  }
+
   const get    = (ep)       => request('GET',    ep);
   const post   = (ep, body) => request('POST',   ep, body);
   const put    = (ep, body) => request('PUT',    ep, body);
@@ -44,7 +129,8 @@ const API = (() => {
   const auth = {
     login:    (data) => post('/auth/login', data),
     register: (data) => post('/auth/register', data),
-    logout:   ()     => post('/auth/logout'),
+    logout:   ()     => post('/auth/logout', { refreshToken: localStorage.getItem('refreshToken') }),
+    refresh:  ()     => refreshTokens(),
     me:       ()     => get('/auth/me'),
   };
 
@@ -131,6 +217,7 @@ const API = (() => {
   const notifications = {
     getAll:    ()       => get('/notifications'),
     getMine:   ()       => get('/notifications/my'),
+    unreadCount: ()     => get('/notifications/unread-count'),
     markRead:  (id)     => patch(`/notifications/${id}/read`),
     markAllRead: ()     => patch('/notifications/read-all'),
     send:      (d)      => post('/notifications/send', d),
@@ -142,6 +229,7 @@ const API = (() => {
     userStats:   () => get('/dashboard/user'),
     adminStats:  () => get('/dashboard/admin'),
     summary:     () => get('/dashboard/summary'),  // Full summary: totalUsers, totalOrders, activeTenders, totalRevenue, revenueByMonth, ordersByStatus
+    stream:      (onEvent) => subscribe('/dashboard/stream', onEvent),  // hello / counters / status / notification events
   };
 
   // ── Public (no auth required) ────────────────────────────
@@ -150,5 +238,5 @@ const API = (() => {
     getAvailableInventory: () => get('/public/inventory'),
   };
 
-  return { auth, users, shipOrders, shipRepairs, tenders, inventory, stockExports, payments, notifications, dashboard, public: publicApi };
+  return { BASE_URL, auth, users, shipOrders, shipRepairs, tenders, inventory, stockExports, payments, notifications, dashboard, public: publicApi };
 })();
@@ -22,6 +22,7 @@ const Auth = (() => {
 
     function saveSession(data) {
         localStorage.setItem('token', data.token);
+        if (data.refreshToken) localStorage.setItem('refreshToken', data.refreshToken);
         const decoded = parseJwt(data.token);
         if (decoded) {
             localStorage.setItem('role', decoded.role);
@@ -51,6 +52,18 @@ const Auth = (() => {
     function isAdmin() { return getRole() === 'ADMIN'; }
 
     function logout() {
+        // Best-effort server-side revocation; the session is cleared regardless.
+        const token = localStorage.getItem('token');
+        const refreshToken = localStorage.getItem('refreshToken');
+        if (token || refreshToken) {
+            fetch(`${API.BASE_URL}/auth/logout`, {
+                method: 'POST',
+                keepalive: true,
+                headers: Object.assign({ 'Content-Type': 'application/json' },
+                    token ? { 'Authorization': `Bearer ${token}` } : {}),
+                body: JSON.stringify({ refreshToken }),
+            }).catch(() => {});
+        }
         localStorage.clear();
         window.location.href = 'login.html';
     }
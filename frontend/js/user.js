@@ -14,12 +14,25 @@ const UserModule = (() => {
         await loadDashboardStats();
         await loadRecentActivity();
 
-        // Start 30s polling for real-time updates
-        setInterval(async () => {
-            await loadDashboardStats();
-            await loadRecentActivity();
-            console.log('[Poll] Dashboard data refreshed');
-        }, 30000);
+        // Live updates replace polling: reload once per (re)connect, then apply pushed deltas
+        API.dashboard.stream((type, data) => {
+            if (type === 'hello') { loadDashboardStats(); if (!data.resumed) loadRecentActivity(); }
+            else if (type === 'counters') applyCounters(data);
+            else if (type === 'notification') prependNotification(data);
+        });
+    }
+
+    function applyCounters(values) {
+        const userId = Auth.getUser().id;
+        const stats = {
+            [`ShipOrder.user.${userId}`]: 'statOrders',
+            [`ShipRepair.user.${userId}`]: 'statRepairs',
+            [`StockExport.user.${userId}`]: 'statExports',
+            'Tender.status.OPEN': 'statTenders',
+        };
+        Object.entries(values).forEach(([key, value]) => {
+            if (stats[key]) updateStat(stats[key], value);
+        });
     }
 
     // ── User info ─────────────────────────────────────────────
@@ -69,17 +82,27 @@ const UserModule = (() => {
             if (!notifs) return;
             const container = document.getElementById('allNotifications');
             if (!container) return;
-            container.innerHTML = notifs.map(n => `
+            container.innerHTML = notifs.map(notificationItem).join('');
+        } catch (e) {
+            console.log('[UserModule] Using demo notifications');
+        }
+    }
+
+    // Pushed notifications (live or replayed on reconnect) are added without reloading the list
+    function prependNotification(n) {
+        const container = document.getElementById('allNotifications');
+        if (container) container.insertAdjacentHTML('afterbegin', notificationItem(n));
+    }
+
+    function notificationItem(n) {
+        return `
         <div class="notif-item">
           <div class="notif-dot-icon ${n.type === 'SUCCESS' ? 'green' : n.type === 'WARNING' ? 'gold' : 'blue'}"></div>
           <div>
             <div class="notif-text">${n.message}</div>
             <div class="notif-time">${formatTime(n.createdAt)}</div>
           </div>
-        </div>`).join('');
-        } catch (e) {
-            console.log('[UserModule] Using demo notifications');
-        }
+        </div>`;
     }
 
     // ── Ship Orders ───────────────────────────────────────────